@@ -19,9 +19,9 @@ import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.PropertyMatchHelper;
 import com.denizenscript.denizencore.utilities.ReflectionHelper;
 import com.denizenscript.denizencore.utilities.debugging.*;
-import com.denizenscript.denizencore.utilities.scheduling.AsyncSchedulable;
-import com.denizenscript.denizencore.utilities.scheduling.OneTimeSchedulable;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 import com.denizenscript.denizencore.utilities.scheduling.Schedulable;
+import com.denizenscript.denizencore.utilities.scheduling.TaskScheduler;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -96,6 +96,11 @@ public class DenizenCore {
      */
     public static final ArrayList<Schedulable> scheduled = new ArrayList<>();
 
+    /**
+     * The scheduler for all scheduled tasks. Only schedulables that need to be ticked every tick go in the 'scheduled' list.
+     */
+    public static final TaskScheduler scheduler = new TaskScheduler(scheduled);
+
     /**
      * All current delayed queues.
      */
@@ -205,7 +210,7 @@ public class DenizenCore {
      */
     public static void postLoadScripts() {
         try {
-            TagManager.preCalced.clear();
+            TagManager.preCalcedCache.clear();
             Attribute.attribsLookup.clear();
             ReplaceableTagEvent.refs.clear();
             ScriptRegistry.postLoadScripts();
@@ -242,9 +247,7 @@ public class DenizenCore {
      * Schedule an item to be run automatically after a given period of time, optionally repeating.
      */
     public static void schedule(Schedulable sched) {
-        synchronized (scheduled) {
-            scheduled.add(sched);
-        }
+        scheduler.schedule(sched);
     }
 
     /** Returns true if called from the thread that DenizenCore understands to be the main thread, or false if on a different thread. */
@@ -259,13 +262,18 @@ public class DenizenCore {
             run.run();
         }
         else {
-            schedule(new OneTimeSchedulable(run, 0));
+            scheduler.runOnMainThread(run);
         }
     }
 
     /** Runs the task on a separate thread. */
     public static void runAsync(Runnable run) {
-        AsyncSchedulable.executor.execute(run);
+        AsyncTaskRunner.run(AsyncTaskRunner.Subsystem.GENERAL, run);
+    }
+
+    /** Runs the task on a separate thread, subject to the concurrency limit of the given subsystem. */
+    public static void runAsync(AsyncTaskRunner.Subsystem subsystem, Runnable run) {
+        AsyncTaskRunner.run(subsystem, run);
     }
 
     /**
@@ -301,23 +309,8 @@ public class DenizenCore {
             tMS -= 1000;
             oncePerSecond();
         }
-        synchronized (scheduled) {
-            for (int i = 0; i < scheduled.size(); i++) {
-                Schedulable current = scheduled.get(i);
-                try {
-                    if (!current.tick((float) ms_elapsed / 1000)) {
-                        scheduled.remove(i--);
-                    }
-                }
-                catch (Throwable ex) {
-                    Debug.echoError("DenizenCore - Scheduler item failed");
-                    Debug.echoError(ex);
-                    if (current instanceof OneTimeSchedulable) {
-                        scheduled.remove(i--);
-                    }
-                }
-            }
-        }
+        ScriptEvent.afterEvents.drain();
+        scheduler.tick(ms_elapsed);
         for (int i = 0; i < timedQueues.size(); i++) {
             TimedQueue queue = timedQueues.get(i);
             queue.tryRevolveOnce();
@@ -3,10 +3,11 @@ package com.denizenscript.denizencore.events;
 import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.events.core.*;
 import com.denizenscript.denizencore.flags.AbstractFlagTracker;
+import com.denizenscript.denizencore.flags.SavableMapFlagTracker;
 import com.denizenscript.denizencore.objects.ArgumentHelper;
 import com.denizenscript.denizencore.objects.ObjectTag;
 import com.denizenscript.denizencore.objects.core.ElementTag;
-import com.denizenscript.denizencore.objects.core.ScriptTag;
+import com.denizenscript.denizencore.objects.core.TimeTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.ScriptEntryData;
 import com.denizenscript.denizencore.scripts.ScriptEntrySet;
@@ -16,18 +17,21 @@ import com.denizenscript.denizencore.scripts.queues.ContextSource;
 import com.denizenscript.denizencore.scripts.queues.ScriptQueue;
 import com.denizenscript.denizencore.scripts.queues.core.InstantQueue;
 import com.denizenscript.denizencore.tags.TagContext;
+import com.denizenscript.denizencore.utilities.BoundedCache;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.Deprecations;
 import com.denizenscript.denizencore.utilities.YamlConfiguration;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.utilities.debugging.DebugInternals;
+import com.denizenscript.denizencore.utilities.debugging.LatencyHistogram;
 import com.denizenscript.denizencore.utilities.scheduling.OneTimeSchedulable;
 import com.denizenscript.denizencore.utilities.text.StringHolder;
 
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 /**
@@ -110,6 +114,22 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
         }
     }
 
+    /**
+     * Returns all currently loaded script paths, each only once (a path can be in the list of more than one event).
+     */
+    public static List<ScriptPath> getAllPaths() {
+        Set<ScriptPath> paths = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ScriptPath> result = new ArrayList<>();
+        for (ScriptEvent event : events) {
+            for (ScriptPath path : event.eventPaths) {
+                if (paths.add(path)) {
+                    result.add(path);
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * A list of all world script containers, automatically populated during script reload.
      */
@@ -173,8 +193,44 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
          * If true, the ScriptEvent is enabled (ie some script is listening to it).
          */
         public boolean isEnabled;
+
+        /**
+         * The switch name or event argument index that paths are indexed by for dispatch, if any (see 'registerDispatchSwitch').
+         */
+        public String dispatchSwitch;
+
+        public int dispatchArgIndex = -1;
+
+        /**
+         * Gets the value of the dispatch key for a fired event.
+         */
+        public Function<ScriptEvent, String> dispatchValueGetter;
+    }
+
+    /**
+     * An index of an event's paths, for skipping paths that can't match without a 'matchesScript' call.
+     * Values are indices into 'eventPaths', in ascending (ie priority) order.
+     */
+    public static class DispatchIndex {
+
+        /**
+         * Paths that only match specific dispatch key values, mapped by lowercased value.
+         */
+        public HashMap<String, int[]> byKey = new HashMap<>();
+
+        /**
+         * Paths that may match any dispatch key value (no exact value given, or a wildcard/regex/tag matcher).
+         */
+        public int[] fallback;
+
+        public int pathCount;
     }
 
+    /**
+     * The dispatch index of this event's 'eventPaths', built on first fire after a reload. Null if not built or not used.
+     */
+    public DispatchIndex dispatchIndex;
+
     /**
      * Known paths that fire this event.
      * Note: cannot be inside InternalEventData as it's uniquely modified for 'bukkit_priority'.
@@ -214,8 +270,41 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
         public List<String> matchFailReasons = null;
         public double switch_chance;
         public List<String> switch_serverFlagged;
+
+        /**
+         * Cached result of the 'server_flagged' switch, valid while the server flag tracker's generation is unchanged and no checked flag has expired.
+         */
+        public boolean serverFlaggedResult;
+        public long serverFlaggedGeneration = -1, serverFlaggedValidUntil;
+        public SavableMapFlagTracker serverFlaggedTracker;
+
+        /**
+         * Statistics about this path: how long each script run took, and how many times a fired event was checked against this path but didn't match.
+         */
+        public LatencyHistogram stats_latency = new LatencyHistogram();
+        public long stats_rejections = 0;
+        /**
+         * The tag context for the current 'matches' call.
+         * When 'eventLazyMatchContext' is enabled, this is only filled in by 'getContext', so use that instead of reading this directly.
+         * That mode is opt-in because existing event implementations (including those in implementing plugins) read this field directly.
+         */
         public TagContext context;
 
+        /**
+         * The event currently being matched against this path, used to lazily build 'context'.
+         */
+        public ScriptEvent matchingEvent;
+
+        /**
+         * Returns the tag context for the current 'matches' call, building it if needed.
+         */
+        public TagContext getContext() {
+            if (context == null && matchingEvent != null) {
+                context = matchingEvent.getTagContext(this);
+            }
+            return context;
+        }
+
         public String rawEventArgAt(int index) {
             return index < rawEventArgs.length ? rawEventArgs[index] : "";
         }
@@ -249,14 +338,14 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
             if (obj == null) {
                 return false;
             }
-            return obj.tryAdvancedMatcher(val, context);
+            return obj.tryAdvancedMatcher(val, getContext());
         }
 
         public boolean tryArgObject(int argIndex, ObjectTag obj) {
             if (obj == null) {
                 return false;
             }
-            return obj.tryAdvancedMatcher(eventArgAt(argIndex), context);
+            return obj.tryAdvancedMatcher(eventArgAt(argIndex), getContext());
         }
 
         // <--[data]
@@ -346,6 +435,7 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
                 event.eventData.isEnabled = false;
                 event.destroy();
                 event.eventPaths.clear();
+                event.dispatchIndex = null;
             }
             catch (Throwable ex) {
                 Debug.echoError("Failed to unload event '<Y>" + event.getName() + "<W>':");
@@ -499,6 +589,61 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
     // -->
 
     public static boolean matchesScript(ScriptEvent sEvent, ScriptPath path) {
+        return matchesScript(sEvent, path, true);
+    }
+
+    /**
+     * Returns true if the path's 'server_flagged' switch (if any) currently passes.
+     */
+    public static boolean checkServerFlagged(ScriptPath path) {
+        if (path.switch_serverFlagged == null) {
+            return true;
+        }
+        SavableMapFlagTracker tracker = DenizenCore.serverFlagMap;
+        if (path.serverFlaggedTracker == tracker && path.serverFlaggedGeneration == tracker.generation && DenizenCore.currentTimeMillis <= path.serverFlaggedValidUntil) {
+            return path.serverFlaggedResult;
+        }
+        long validUntil = Long.MAX_VALUE;
+        boolean result = true;
+        for (String flag : path.switch_serverFlagged) {
+            boolean inverted = flag.startsWith("!");
+            String name = inverted ? flag.substring(1) : flag;
+            boolean has = tracker.hasFlag(name);
+            if (has) {
+                validUntil = Math.min(validUntil, getFlagExpiration(tracker, name));
+            }
+            if (has == inverted) {
+                result = false;
+                break;
+            }
+        }
+        path.serverFlaggedTracker = tracker;
+        path.serverFlaggedGeneration = tracker.generation;
+        path.serverFlaggedValidUntil = validUntil;
+        path.serverFlaggedResult = result;
+        return result;
+    }
+
+    /**
+     * Returns the earliest time (in millis) that an existing flag would stop existing due to its own or a parent key's expiration, or Long.MAX_VALUE if never.
+     */
+    public static long getFlagExpiration(AbstractFlagTracker tracker, String name) {
+        long result = Long.MAX_VALUE;
+        int dot = -1;
+        do {
+            dot = name.indexOf('.', dot + 1);
+            TimeTag expiration = tracker.getFlagExpirationTime(dot == -1 ? name : name.substring(0, dot));
+            if (expiration != null) {
+                result = Math.min(result, expiration.millis());
+            }
+        } while (dot != -1);
+        return result;
+    }
+
+    /**
+     * Matches a path, optionally skipping the 'server_flagged' check (if the caller has already checked it).
+     */
+    public static boolean matchesScript(ScriptEvent sEvent, ScriptPath path, boolean checkServerFlagged) {
         if (path.switch_cancelled != null) {
             if (path.switch_cancelled != sEvent.cancelled) {
                 return false;
@@ -514,17 +659,8 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
                 return false;
             }
         }
-        if (path.switch_serverFlagged != null) {
-            for (String flag : path.switch_serverFlagged) {
-                if (flag.startsWith("!")) {
-                    if (DenizenCore.serverFlagMap.hasFlag(flag.substring(1))) {
-                        return false;
-                    }
-                }
-                else if (!DenizenCore.serverFlagMap.hasFlag(flag)) {
-                    return false;
-                }
-            }
+        if (checkServerFlagged && !checkServerFlagged(path)) {
+            return false;
         }
         if (path.switch_chance != 0) {
             if (CoreUtilities.getRandom().nextDouble() * 100 > path.switch_chance) {
@@ -536,10 +672,19 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
                 return false;
             }
         }
-        path.context = sEvent.getTagContext(path);
-        boolean matches = sEvent.matches(path);
-        path.context = null;
-        return matches;
+        if (CoreConfiguration.eventLazyMatchContext) {
+            path.matchingEvent = sEvent;
+        }
+        else {
+            path.context = sEvent.getTagContext(path);
+        }
+        try {
+            return sEvent.matches(path);
+        }
+        finally {
+            path.context = null;
+            path.matchingEvent = null;
+        }
     }
 
     /**
@@ -573,6 +718,84 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
             int rel = scriptPath.priority - t1.priority;
             return Integer.compare(rel, 0);
         });
+        dispatchIndex = null;
+    }
+
+    /**
+     * Registers a switch as this event's dispatch key, so firing the event only checks paths that either don't have the switch, or have a value that could match.
+     * Only valid when the event's 'matches' checks the switch as a plain text match of the value (ie 'runGenericSwitchCheck').
+     */
+    public final <TEvent extends ScriptEvent> void registerDispatchSwitch(String switchName, Function<TEvent, String> valueGetter) {
+        eventData.dispatchSwitch = CoreUtilities.toLowerCase(switchName);
+        eventData.dispatchArgIndex = -1;
+        eventData.dispatchValueGetter = (Function<ScriptEvent, String>) valueGetter;
+    }
+
+    /**
+     * Registers an event argument as this event's dispatch key, so firing the event only checks paths with a value at that index that could match.
+     * Only valid when the event's 'matches' checks the argument as a plain text match of the value (ie 'runGenericCheck'), not an object matcher.
+     */
+    public final <TEvent extends ScriptEvent> void registerDispatchArgument(int argIndex, Function<TEvent, String> valueGetter) {
+        eventData.dispatchSwitch = null;
+        eventData.dispatchArgIndex = argIndex;
+        eventData.dispatchValueGetter = (Function<ScriptEvent, String>) valueGetter;
+    }
+
+    /**
+     * Returns the exact lowercased values the given path's dispatch key can match, or null if it could match any value.
+     */
+    public List<String> getDispatchKeys(ScriptPath path) {
+        String raw;
+        if (eventData.dispatchSwitch != null) {
+            raw = path.switches.get(eventData.dispatchSwitch);
+        }
+        else {
+            raw = eventData.dispatchArgIndex < path.eventArgs.length ? path.eventArgs[eventData.dispatchArgIndex] : null;
+        }
+        if (raw == null || CoreUtilities.contains(raw, '<')) {
+            return null;
+        }
+        MatchHelper matcher = createMatcher(raw);
+        if (matcher instanceof ExactMatchHelper) {
+            return Collections.singletonList(((ExactMatchHelper) matcher).text);
+        }
+        if (matcher instanceof MultipleMatchesHelper) {
+            List<String> result = new ArrayList<>();
+            for (MatchHelper subMatcher : ((MultipleMatchesHelper) matcher).matches) {
+                if (!(subMatcher instanceof ExactMatchHelper)) {
+                    return null;
+                }
+                String text = ((ExactMatchHelper) subMatcher).text;
+                if (!result.contains(text)) {
+                    result.add(text);
+                }
+            }
+            return result;
+        }
+        return null;
+    }
+
+    public DispatchIndex buildDispatchIndex() {
+        HashMap<String, ArrayList<Integer>> byKey = new HashMap<>();
+        ArrayList<Integer> fallback = new ArrayList<>();
+        for (int i = 0; i < eventPaths.size(); i++) {
+            List<String> keys = getDispatchKeys(eventPaths.get(i));
+            if (keys == null) {
+                fallback.add(i);
+            }
+            else {
+                for (String key : keys) {
+                    byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+        DispatchIndex index = new DispatchIndex();
+        for (Map.Entry<String, ArrayList<Integer>> entry : byKey.entrySet()) {
+            index.byKey.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        index.fallback = fallback.stream().mapToInt(Integer::intValue).toArray();
+        index.pathCount = eventPaths.size();
+        return index;
     }
 
     public void init() {
@@ -748,24 +971,163 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
     public ScriptEvent fire() {
         ScriptEvent copy = clone();
         eventData.stats_fires++;
-        for (ScriptPath path : eventPaths) {
-            try {
-                if (matchesScript(copy, path)) {
-                    if (path.fireAfter) {
-                        final ScriptPath finalPath = path;
-                        DenizenCore.schedule(new OneTimeSchedulable(() -> copy.run(finalPath), 0.01f));
+        fireInternal(copy, getDispatchIndex(), null);
+        return copy;
+    }
+
+    /**
+     * Fires a batch of events of this type, in order, each fully handled before the next.
+     * Each state is used directly as the fired event copy (it is not cloned), so each must be a separate object.
+     * Per-path work that doesn't depend on the event state (dispatch index lookup, 'server_flagged' switches) is done once for the whole batch,
+     * so 'server_flagged' results don't change partway through a batch.
+     */
+    public <T extends ScriptEvent> T[] fireBatch(T[] states) {
+        eventData.stats_fires += states.length;
+        boolean[] skipPaths = new boolean[eventPaths.size()];
+        boolean anyRemaining = false;
+        for (int i = 0; i < skipPaths.length; i++) {
+            skipPaths[i] = !checkServerFlagged(eventPaths.get(i));
+            anyRemaining |= !skipPaths[i];
+        }
+        if (!anyRemaining) {
+            return states;
+        }
+        DispatchIndex index = getDispatchIndex();
+        for (T state : states) {
+            fireInternal(state, index, skipPaths);
+        }
+        return states;
+    }
+
+    /**
+     * A FIFO ring buffer of pending 'after' event path runs, drained once per tick by DenizenCore.tick.
+     * Main thread only (runs fired from other threads go through DenizenCore.schedule instead).
+     */
+    public static class AfterEventBuffer {
+
+        public ScriptEvent[] events = new ScriptEvent[64];
+
+        public ScriptPath[] paths = new ScriptPath[64];
+
+        public int head = 0, size = 0;
+
+        public void add(ScriptEvent event, ScriptPath path) {
+            if (size == events.length) {
+                ScriptEvent[] newEvents = new ScriptEvent[events.length * 2];
+                ScriptPath[] newPaths = new ScriptPath[paths.length * 2];
+                for (int i = 0; i < size; i++) {
+                    int index = (head + i) & (events.length - 1);
+                    newEvents[i] = events[index];
+                    newPaths[i] = paths[index];
+                }
+                events = newEvents;
+                paths = newPaths;
+                head = 0;
+            }
+            int index = (head + size) & (events.length - 1);
+            events[index] = event;
+            paths[index] = path;
+            size++;
+        }
+
+        /**
+         * Runs everything that was pending at the start of the call. Anything added while draining waits for the next tick.
+         */
+        public void drain() {
+            int count = size;
+            for (int i = 0; i < count; i++) {
+                ScriptEvent event = events[head];
+                ScriptPath path = paths[head];
+                events[head] = null;
+                paths[head] = null;
+                head = (head + 1) & (events.length - 1);
+                size--;
+                try {
+                    event.run(path);
+                }
+                catch (Throwable ex) {
+                    Debug.echoError(ex);
+                }
+            }
+        }
+    }
+
+    public static final AfterEventBuffer afterEvents = new AfterEventBuffer();
+
+    /**
+     * Returns the current dispatch index (building it if needed), or null if this event doesn't use one.
+     */
+    public DispatchIndex getDispatchIndex() {
+        if (eventData.dispatchValueGetter == null || !CoreConfiguration.eventDispatchIndex) {
+            return null;
+        }
+        DispatchIndex index = dispatchIndex;
+        if (index == null || index.pathCount != eventPaths.size()) {
+            index = buildDispatchIndex();
+            dispatchIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Runs all paths that match the given fired copy. If 'skipPaths' is given, it marks paths (by index) that have already been rejected by server_flagged checks.
+     */
+    private void fireInternal(ScriptEvent copy, DispatchIndex index, boolean[] skipPaths) {
+        if (index == null) {
+            for (int i = 0; i < eventPaths.size(); i++) {
+                fireFor(copy, i, skipPaths);
+            }
+            return;
+        }
+        String value = eventData.dispatchValueGetter.apply(copy);
+        int[] keyed = value == null ? null : index.byKey.get(CoreUtilities.toLowerCase(value));
+        int[] fallback = index.fallback;
+        if (keyed == null) {
+            for (int i : fallback) {
+                fireFor(copy, i, skipPaths);
+            }
+            return;
+        }
+        // Merge the two ascending lists, to keep priority order
+        int keyedIndex = 0, fallbackIndex = 0;
+        while (keyedIndex < keyed.length || fallbackIndex < fallback.length) {
+            if (fallbackIndex >= fallback.length || (keyedIndex < keyed.length && keyed[keyedIndex] < fallback[fallbackIndex])) {
+                fireFor(copy, keyed[keyedIndex++], skipPaths);
+            }
+            else {
+                fireFor(copy, fallback[fallbackIndex++], skipPaths);
+            }
+        }
+    }
+
+    private void fireFor(ScriptEvent copy, int pathIndex, boolean[] skipPaths) {
+        ScriptPath path = eventPaths.get(pathIndex);
+        if (skipPaths != null && skipPaths[pathIndex]) {
+            path.stats_rejections++;
+            return;
+        }
+        try {
+            if (matchesScript(copy, path, skipPaths == null)) {
+                if (path.fireAfter) {
+                    if (Thread.currentThread() == DenizenCore.MAIN_THREAD) {
+                        afterEvents.add(copy, path);
                     }
                     else {
-                        copy.run(path);
+                        DenizenCore.schedule(new OneTimeSchedulable(() -> copy.run(path), 0.01f));
                     }
                 }
+                else {
+                    copy.run(path);
+                }
             }
-            catch (Exception e) {
-                Debug.echoError("Matching script " + path.container.getName() + " event path:" + path.event + ":::");
-                Debug.echoError(e);
+            else {
+                path.stats_rejections++;
             }
         }
-        return copy;
+        catch (Exception e) {
+            Debug.echoError("Matching script " + path.container.getName() + " event path:" + path.event + ":::");
+            Debug.echoError(e);
+        }
     }
 
     public void run(ScriptPath path) {
@@ -779,14 +1141,16 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
                 return;
             }
             List<ScriptEntry> entries = ScriptContainer.cleanDup(getScriptEntryData(), path.set);
-            ScriptQueue queue = new InstantQueue(path.container.getName());
+            ScriptQueue queue = new InstantQueue(path.container.getName(), CoreConfiguration.eventLightweightQueues);
             queue.addEntries(entries);
             queue.setContextSource(this);
             if (!path.fireAfter) {
                 queue.determinationTarget = (prefix, value) -> handleDetermination(path, prefix, value);
             }
             queue.start(true);
-            eventData.stats_nanoTimes += System.nanoTime() - queue.startTime;
+            long time = System.nanoTime() - queue.startTime;
+            eventData.stats_nanoTimes += time;
+            path.stats_latency.record(time);
         }
         catch (Exception e) {
             Debug.echoError("Handling script " + path.container.getName() + " path:" + path.event + ":::");
@@ -796,7 +1160,7 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
 
     public TagContext getTagContext(ScriptPath path) {
         TagContext context = getScriptEntryData().getTagContext().clone();
-        context.script = new ScriptTag(path.container);
+        context.script = path.container.getCachedScriptTag();
         context.debug = path.container.shouldDebug();
         return context;
     }
@@ -984,17 +1348,130 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
         }
     }
 
+    /**
+     * A character trie of lowercased texts, for checking whether an input starts (or ends) with any of them in a single pass.
+     */
+    public static class MatchTrie {
+
+        public char[] keys = new char[0];
+
+        public MatchTrie[] children = new MatchTrie[0];
+
+        public boolean terminal;
+
+        public MatchTrie getChild(char c) {
+            char[] keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        public void add(String text, boolean reversed) {
+            MatchTrie node = this;
+            int len = text.length();
+            for (int i = 0; i < len; i++) {
+                char c = text.charAt(reversed ? len - 1 - i : i);
+                MatchTrie child = node.getChild(c);
+                if (child == null) {
+                    child = new MatchTrie();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                    node.keys[node.keys.length - 1] = c;
+                    node.children[node.children.length - 1] = child;
+                }
+                node = child;
+            }
+            node.terminal = true;
+        }
+
+        /**
+         * Returns true if the (lowercased) input starts with any text in the trie, or ends with any if 'reversed'.
+         */
+        public boolean matches(String input, boolean reversed) {
+            MatchTrie node = this;
+            int len = input.length();
+            for (int i = 0; i < len; i++) {
+                if (node.terminal) {
+                    return true;
+                }
+                node = node.getChild(input.charAt(reversed ? len - 1 - i : i));
+                if (node == null) {
+                    return false;
+                }
+            }
+            return node.terminal;
+        }
+    }
+
     public static class MultipleMatchesHelper extends MatchHelper {
 
         public MultipleMatchesHelper(MatchHelper[] matches) {
             this.matches = matches;
+            compile();
         }
 
         public MatchHelper[] matches;
 
+        /**
+         * Compiled form of 'matches': exact texts in a hash set, 'text*' and '*text' in tries, so most lists are checked in time based on the input length rather than the number of options.
+         * Anything else (regex, multiple asterisks, etc.) is checked individually from 'otherMatches'.
+         */
+        public HashSet<String> exactMatches;
+
+        public MatchTrie startsWithTrie, endsWithTrie;
+
+        public boolean hasAlwaysMatch;
+
+        public MatchHelper[] otherMatches;
+
+        public void compile() {
+            exactMatches = new HashSet<>();
+            List<MatchHelper> others = new ArrayList<>();
+            for (MatchHelper match : matches) {
+                if (match instanceof ExactMatchHelper exact) {
+                    exactMatches.add(exact.text);
+                }
+                else if (match instanceof PostfixAsteriskMatchHelper postfix) {
+                    if (startsWithTrie == null) {
+                        startsWithTrie = new MatchTrie();
+                    }
+                    startsWithTrie.add(postfix.text, false);
+                }
+                else if (match instanceof PrefixAsteriskMatchHelper prefix) {
+                    if (endsWithTrie == null) {
+                        endsWithTrie = new MatchTrie();
+                    }
+                    endsWithTrie.add(prefix.text, true);
+                }
+                else if (match instanceof AlwaysMatchHelper) {
+                    hasAlwaysMatch = true;
+                }
+                else {
+                    others.add(match);
+                }
+            }
+            otherMatches = others.toArray(new MatchHelper[0]);
+        }
+
         @Override
         public boolean doesMatch(String input) {
-            for (MatchHelper match : matches) {
+            if (hasAlwaysMatch) {
+                return true;
+            }
+            String lowered = CoreUtilities.toLowerCase(input);
+            if (exactMatches.contains(lowered)) {
+                return true;
+            }
+            if (startsWithTrie != null && startsWithTrie.matches(lowered, false)) {
+                return true;
+            }
+            if (endsWithTrie != null && endsWithTrie.matches(lowered, true)) {
+                return true;
+            }
+            for (MatchHelper match : otherMatches) {
                 if (match.doesMatch(input)) {
                     return true;
                 }
@@ -1032,14 +1509,23 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
         }
     }
 
-    public static final HashMap<String, MatchHelper> knownMatchers = new HashMap<>();
+    /**
+     * Cache of matchers by input text, limited to 'matcherCacheSize' entries.
+     */
+    public static final BoundedCache<String, MatchHelper> knownMatchersCache = new BoundedCache<>(() -> CoreConfiguration.matcherCacheSize);
+
+    /**
+     * Direct view of the backing map of 'knownMatchersCache', kept for compatibility. Any access must synchronize on 'knownMatchersCache'.
+     */
+    @Deprecated
+    public static final HashMap<String, MatchHelper> knownMatchers = knownMatchersCache.map;
 
     public static boolean isAdvancedMatchable(String input) {
         return input.startsWith("regex:") || CoreUtilities.contains(input, '|') || CoreUtilities.contains(input, '*') || input.startsWith("!");
     }
 
     public static MatchHelper createMatcher(String input) {
-        MatchHelper result = knownMatchers.get(input);
+        MatchHelper result = knownMatchersCache.get(input);
         if (result != null) {
             return result;
         }
@@ -1080,8 +1566,8 @@ public abstract class ScriptEvent implements ContextSource, Cloneable {
         else {
             result = new ExactMatchHelper(input);
         }
-        knownMatchers.put(input, result);
         result.raw = input;
+        knownMatchersCache.put(input, result);
         return result;
     }
 
@@ -55,6 +55,7 @@ public class CustomScriptEvent extends ScriptEvent {
         instance = this;
         registerCouldMatcher("custom event");
         registerSwitches("id", "data");
+        this.<CustomScriptEvent>registerDispatchSwitch("id", evt -> evt.id);
         this.<CustomScriptEvent, ObjectTag>registerDetermination("output", ObjectTag.class, (evt, context, output) -> {
             evt.determinations.addObject(output);
         });
@@ -80,7 +81,7 @@ public class CustomScriptEvent extends ScriptEvent {
                 if (val == null) {
                     return false;
                 }
-                if (!val.tryAdvancedMatcher(parts.get(1), path.context)) {
+                if (!val.tryAdvancedMatcher(parts.get(1), path.getContext())) {
                     return false;
                 }
             }
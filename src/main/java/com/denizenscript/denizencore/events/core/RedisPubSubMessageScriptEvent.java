@@ -35,6 +35,7 @@ public class RedisPubSubMessageScriptEvent extends ScriptEvent {
         instance = this;
         registerCouldMatcher("redis pubsub message");
         registerSwitches("channel");
+        this.<RedisPubSubMessageScriptEvent>registerDispatchSwitch("channel", evt -> evt.channel);
     }
 
     @Override
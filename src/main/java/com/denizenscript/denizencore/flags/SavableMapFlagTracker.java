@@ -8,13 +8,17 @@ import com.denizenscript.denizencore.objects.core.TimeTag;
 import com.denizenscript.denizencore.utilities.AsciiMatcher;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
+import com.denizenscript.denizencore.utilities.ReflectionHelper;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.utilities.text.StringHolder;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
 
 public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
 
@@ -26,8 +30,25 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
 
         public boolean canExpire;
 
+        /**
+         * For lazily loaded flags, the mapped file buffer and range holding the still-escaped value (null once loaded).
+         */
+        public ByteBuffer source;
+
+        public int sourceStart, sourceLength;
+
+        public Charset sourceCharset;
+
+        public void loadLazy() {
+            if (source != null) {
+                string = unescapeValue(decodeRange(source, sourceStart, sourceLength, sourceCharset));
+                source = null;
+            }
+        }
+
         public MapTag getMap() {
             if (map == null) {
+                loadLazy();
                 if (string.startsWith("map@")) {
                     map = MapTag.valueOf(string, CoreUtilities.noDebugContext);
                 }
@@ -40,6 +61,7 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
         }
 
         public String getString() {
+            loadLazy();
             if (string == null) {
                 if (map.containsKey(expirationString) || map.getObject(valueString) instanceof MapTag) {
                     string = map.savable();
@@ -54,8 +76,18 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
 
     public HashMap<StringHolder, SaveOptimizedFlag> map;
 
+    /**
+     * The memory-mapped flag file that lazily loaded flags still read from, if any (see 'loadMappedFile').
+     */
+    public MappedByteBuffer mappedSource;
+
     public boolean modified;
 
+    /**
+     * Incremented on every flag change, so cached results derived from flags (eg 'server_flagged' event switches) can tell when they're stale.
+     */
+    public long generation;
+
     public SavableMapFlagTracker() {
         map = new HashMap<>();
     }
@@ -63,29 +95,117 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
     public SavableMapFlagTracker(String input) {
         input = input.replace("\r", "");
         map = new HashMap<>(input.length() / 50);
+        journalEpoch = readEpoch(input);
+        loadLines(input);
+    }
+
+    /**
+     * Whether changes are recorded to an append-only journal file, rather than rewriting the full file each save.
+     */
+    public boolean useJournal;
+
+    /**
+     * Root keys changed since the last save, when using a journal.
+     */
+    public HashSet<StringHolder> journalDirtyKeys = new HashSet<>();
+
+    /**
+     * Number of records in the journal file since the last compaction.
+     */
+    public int journalRecordCount;
+
+    /**
+     * The epoch of the saved snapshot, incremented whenever a new snapshot replaces the journal.
+     * Both the snapshot and the journal file start with an epoch line ('\ep:N'), and a journal is only replayed over a snapshot with the same epoch,
+     * so a journal left behind by a crash between writing a newer snapshot and deleting the journal is ignored rather than reverting newer values.
+     */
+    public long journalEpoch;
+
+    /**
+     * Whether a journal file was present when loading, so that a non-journal save must supersede it.
+     */
+    public boolean journalOnDisk;
+
+    /**
+     * Journal records pending write, the epoch they belong to, and a full snapshot pending write (if a compaction is due).
+     * Guarded by 'journalLock', which is only held to swap these references. Disk writes are serialized by 'journalWriteLock'.
+     */
+    public StringBuilder journalPendingRecords = new StringBuilder();
+
+    public long journalPendingEpoch;
+
+    public String journalPendingSnapshot;
+
+    public final Object journalLock = new Object();
+
+    public final Object journalWriteLock = new Object();
+
+    public static final String EPOCH_PREFIX = "\\ep:";
+
+    /**
+     * Returns the epoch from a leading epoch line of flag file or journal content, or 0 if there is none.
+     */
+    public static long readEpoch(String input) {
+        if (!input.startsWith(EPOCH_PREFIX)) {
+            return 0;
+        }
+        int eol = input.indexOf('\n');
+        if (eol == -1) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(input.substring(EPOCH_PREFIX.length(), eol).trim());
+        }
+        catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Loads 'key:value' lines from the input into the map, applying '\rm' removal records, and returns the number of lines applied.
+     */
+    public int loadLines(String input) {
+        int count = 0;
         int eol = input.indexOf('\n');
         int startOfLine = 0;
         while (eol != -1) {
             int colon = input.indexOf(':', startOfLine);
-            if (colon != -1) {
+            if (colon != -1 && colon < eol) {
                 String key = input.substring(startOfLine, colon);
-                boolean expirable = key.startsWith("\\ex");
-                if (expirable) {
-                    key = key.substring("\\ex".length());
+                if (key.equals("\\ep")) {
+                    // Epoch line, see 'readEpoch'
                 }
-                key = unescapeKey(key);
-                String value = unescapeValue(input.substring(colon + 1, eol));
-                SaveOptimizedFlag flag = new SaveOptimizedFlag();
-                flag.canExpire = expirable;
-                flag.string = value;
-                map.put(new StringHolder(key), flag);
-                if (CoreConfiguration.debugVerbose) {
-                    Debug.log("Verbose: MapFlagTracker, loading flag " + key + " as " + value);
+                else if (key.startsWith("\\rm")) {
+                    map.remove(new StringHolder(unescapeKey(key.substring("\\rm".length()))));
+                    count++;
+                }
+                else {
+                    boolean expirable = key.startsWith("\\ex");
+                    if (expirable) {
+                        key = key.substring("\\ex".length());
+                    }
+                    key = unescapeKey(key);
+                    String value = unescapeValue(input.substring(colon + 1, eol));
+                    SaveOptimizedFlag flag = new SaveOptimizedFlag();
+                    flag.canExpire = expirable;
+                    flag.string = value;
+                    map.put(new StringHolder(key), flag);
+                    if (CoreConfiguration.debugVerbose) {
+                        Debug.log("Verbose: MapFlagTracker, loading flag " + key + " as " + value);
+                    }
+                    count++;
                 }
             }
             startOfLine = eol + 1;
             eol = input.indexOf('\n', eol + 1);
         }
+        return count;
+    }
+
+    public void markJournalDirty(StringHolder key) {
+        if (useJournal) {
+            journalDirtyKeys.add(key);
+        }
     }
 
     @Override
@@ -99,6 +219,7 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
             if (!val.canExpire) {
                 continue;
             }
+            val.loadLazy();
             TimeTag expireTime = null;
             boolean hasSubMap = false;
             if (val.map != null) {
@@ -118,13 +239,16 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
             }
             if (isExpired(expireTime)) {
                 toRemove.add(entry.getKey());
+                markJournalDirty(entry.getKey());
                 modified = true;
+                generation++;
             }
             else if (hasSubMap) {
                 ObjectTag subValue = val.getMap().getObject(valueString);
                 if (subValue instanceof MapTag) {
                     if (doClean((MapTag) subValue)) {
                         val.string = null;
+                        markJournalDirty(entry.getKey());
                         modified = true;
                     }
                 }
@@ -150,8 +274,11 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
     @Override
     public void setRootMap(String key, MapTag value) {
         modified = true;
+        generation++;
+        StringHolder keyHolder = new StringHolder(key);
+        markJournalDirty(keyHolder);
         if (value == null) {
-            map.remove(new StringHolder(key));
+            map.remove(keyHolder);
             return;
         }
         SaveOptimizedFlag flag = new SaveOptimizedFlag();
@@ -160,7 +287,7 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
         if (value.containsKey(expirationString) || value.getObject(valueString) instanceof MapTag) {
             flag.canExpire = true;
         }
-        map.put(new StringHolder(key), flag);
+        map.put(keyHolder, flag);
     }
 
     @Override
@@ -216,30 +343,151 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
         return key;
     }
 
+    public static void appendFlagLine(StringBuilder output, String key, SaveOptimizedFlag flag) {
+        if (flag.canExpire) {
+            output.append("\\ex");
+        }
+        output.append(escapeKey(key)).append(":").append(escapeValue(flag.getString())).append('\n');
+    }
+
     @Override
     public String toString() {
         StringBuilder toOutput = new StringBuilder(map.size() * 100);
         for (Map.Entry<StringHolder, SavableMapFlagTracker.SaveOptimizedFlag> flag : map.entrySet()) {
-            if (flag.getValue().canExpire) {
-                toOutput.append("\\ex");
-            }
-            toOutput.append(escapeKey(flag.getKey().str)).append(":").append(escapeValue(flag.getValue().getString())).append('\n');
+            appendFlagLine(toOutput, flag.getKey().str, flag.getValue());
         }
         return toOutput.toString();
     }
 
+    /**
+     * Returns the full file content to save, which is the flag lines preceded by the epoch line (if any epoch has been assigned).
+     */
+    public String toSnapshotString() {
+        if (journalEpoch == 0) {
+            return toString();
+        }
+        return EPOCH_PREFIX + journalEpoch + "\n" + toString();
+    }
+
+    public static String decodeRange(ByteBuffer buffer, int start, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        String result = new String(bytes, charset);
+        if (CoreUtilities.contains(result, '\r')) {
+            result = result.replace("\r", "");
+        }
+        return result;
+    }
+
+    public static int indexOf(ByteBuffer buffer, byte value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Loads a flag file by memory-mapping it and only indexing the keys.
+     * Values are left in the mapped buffer and only decoded when first accessed.
+     * The file's encoding must be ASCII-compatible (as UTF-8 and the usual single-byte encodings are), so that newlines and colons can be found bytewise.
+     * Returns null if the file is missing or can't be mapped.
+     */
+    public static SavableMapFlagTracker loadMappedFile(String filePath) {
+        try {
+            File realPath = new File(filePath);
+            if (!realPath.exists()) {
+                realPath = new File(filePath + "~2");
+                if (!realPath.exists()) {
+                    return null;
+                }
+            }
+            Charset charset = CoreConfiguration.scriptEncoding == null ? Charset.defaultCharset() : CoreConfiguration.scriptEncoding.charset();
+            try (FileChannel channel = FileChannel.open(realPath.toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    return null;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                SavableMapFlagTracker tracker = new SavableMapFlagTracker();
+                tracker.mappedSource = buffer;
+                tracker.map = new HashMap<>((int) (size / 50));
+                int limit = (int) size;
+                int startOfLine = 0;
+                int eol = indexOf(buffer, (byte) '\n', 0, limit);
+                while (eol != -1) {
+                    int colon = indexOf(buffer, (byte) ':', startOfLine, eol);
+                    if (colon != -1) {
+                        String key = decodeRange(buffer, startOfLine, colon - startOfLine, charset);
+                        if (key.equals("\\ep")) {
+                            tracker.journalEpoch = readEpoch(decodeRange(buffer, startOfLine, eol - startOfLine + 1, charset));
+                            startOfLine = eol + 1;
+                            eol = indexOf(buffer, (byte) '\n', startOfLine, limit);
+                            continue;
+                        }
+                        boolean expirable = key.startsWith("\\ex");
+                        if (expirable) {
+                            key = key.substring("\\ex".length());
+                        }
+                        SaveOptimizedFlag flag = new SaveOptimizedFlag();
+                        flag.canExpire = expirable;
+                        flag.source = buffer;
+                        flag.sourceStart = colon + 1;
+                        flag.sourceLength = eol - colon - 1;
+                        flag.sourceCharset = charset;
+                        tracker.map.put(new StringHolder(unescapeKey(key)), flag);
+                    }
+                    startOfLine = eol + 1;
+                    eol = indexOf(buffer, (byte) '\n', startOfLine, limit);
+                }
+                return tracker;
+            }
+        }
+        catch (Throwable ex) {
+            Debug.echoError("Failed to map flag data for path '" + filePath + "'");
+            Debug.echoError(ex);
+            return null;
+        }
+    }
+
     public static SavableMapFlagTracker loadFlagFile(String filePath, boolean doClean) {
         if (CoreConfiguration.debugVerbose) {
             Debug.echoError("Verbose - loading flag file path at " + filePath);
         }
-        String content = CoreUtilities.journallingLoadFile(filePath + ".dat");
-        if (CoreConfiguration.debugVerbose) {
-            Debug.echoError("Verbose - loaded flag content for " + filePath + " as " + (content == null ? "null" : content.length()));
+        SavableMapFlagTracker tracker = CoreConfiguration.flagLazyLoad ? loadMappedFile(filePath + ".dat") : null;
+        if (tracker == null) {
+            String content = CoreUtilities.journallingLoadFile(filePath + ".dat");
+            if (CoreConfiguration.debugVerbose) {
+                Debug.echoError("Verbose - loaded flag content for " + filePath + " as " + (content == null ? "null" : content.length()));
+            }
+            tracker = content == null ? new SavableMapFlagTracker() : new SavableMapFlagTracker(content);
         }
-        if (content == null) {
-            return new SavableMapFlagTracker();
+        tracker.useJournal = CoreConfiguration.flagJournalEnabled;
+        File journalFile = new File(filePath + ".log");
+        if (journalFile.exists()) {
+            CoreUtilities.truncateToLastLine(journalFile.getPath());
+            String journal = CoreUtilities.journallingLoadFile(journalFile.getPath());
+            if (journal != null) {
+                journal = journal.replace("\r", "");
+                long epoch = readEpoch(journal);
+                if (epoch != tracker.journalEpoch) {
+                    // Left over from a crash after a newer snapshot was saved, so every record in it is already in the snapshot
+                    journalFile.delete();
+                    if (CoreConfiguration.debugVerbose) {
+                        Debug.echoError("Verbose - discarded stale flag journal (epoch " + epoch + " vs " + tracker.journalEpoch + ") for " + filePath);
+                    }
+                }
+                else {
+                    tracker.journalOnDisk = true;
+                    tracker.journalRecordCount = tracker.loadLines(journal);
+                    tracker.modified = true;
+                    if (CoreConfiguration.debugVerbose) {
+                        Debug.echoError("Verbose - replayed " + tracker.journalRecordCount + " flag journal records for " + filePath);
+                    }
+                }
+            }
         }
-        SavableMapFlagTracker tracker = new SavableMapFlagTracker(content);
         if (CoreConfiguration.debugVerbose) {
             Debug.echoError("Verbose - loading flag file path at " + filePath + " to tracker of " + tracker.map.size() + " flags... doClean=" + doClean);
         }
@@ -249,13 +497,50 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
         return tracker;
     }
 
+    /**
+     * Decodes every value still lazily held in the mapped flag file, then unmaps the file.
+     * Must be called on the thread that uses the tracker, before the flag file is rewritten, as a mapped file can't be replaced on some systems (notably Windows).
+     */
+    public void releaseMapping() {
+        if (mappedSource == null) {
+            return;
+        }
+        for (SaveOptimizedFlag flag : map.values()) {
+            flag.loadLazy();
+        }
+        MappedByteBuffer buffer = mappedSource;
+        mappedSource = null;
+        ReflectionHelper.unmapBuffer(buffer);
+    }
+
     public void saveToFile(String filePath) {
         saveToFile(filePath, true);
     }
 
     public void saveToFile(String filePath, boolean lockUntilDone) {
-        String data = toString();
-        Runnable run = () -> CoreUtilities.journallingFileSave(filePath + ".dat", data);
+        Runnable run;
+        if (useJournal) {
+            prepareJournal();
+            run = () -> flushJournal(filePath);
+        }
+        else {
+            if (journalOnDisk) {
+                // Supersede the journal, so it's ignored if the process dies before it's deleted
+                journalEpoch++;
+                journalOnDisk = false;
+            }
+            releaseMapping();
+            String data = toSnapshotString();
+            run = () -> {
+                if (!CoreUtilities.journallingFileSave(filePath + ".dat", data)) {
+                    return;
+                }
+                File journalFile = new File(filePath + ".log");
+                if (journalFile.exists()) {
+                    journalFile.delete();
+                }
+            };
+        }
         if (lockUntilDone) {
             run.run();
         }
@@ -263,4 +548,84 @@ public class SavableMapFlagTracker extends MapTagBasedFlagTracker {
             DenizenCore.runAsync(run);
         }
     }
+
+    /**
+     * Queues journal records for all keys changed since the last save, or a full snapshot if the journal has grown large enough to compact.
+     * Must be called from the thread that modifies the tracker.
+     */
+    public void prepareJournal() {
+        String snapshot = null;
+        StringBuilder records = null;
+        if (journalRecordCount + journalDirtyKeys.size() > CoreConfiguration.flagJournalCompactThreshold) {
+            releaseMapping();
+            journalEpoch++;
+            snapshot = toSnapshotString();
+            journalRecordCount = 0;
+        }
+        else if (!journalDirtyKeys.isEmpty()) {
+            records = new StringBuilder(journalDirtyKeys.size() * 100);
+            for (StringHolder key : journalDirtyKeys) {
+                SaveOptimizedFlag flag = map.get(key);
+                if (flag == null) {
+                    records.append("\\rm").append(escapeKey(key.str)).append(":\n");
+                }
+                else {
+                    appendFlagLine(records, key.str, flag);
+                }
+            }
+            journalRecordCount += journalDirtyKeys.size();
+        }
+        journalDirtyKeys.clear();
+        synchronized (journalLock) {
+            if (snapshot != null) {
+                journalPendingSnapshot = snapshot;
+                journalPendingRecords.setLength(0);
+            }
+            else if (records != null) {
+                journalPendingRecords.append(records);
+            }
+            journalPendingEpoch = journalEpoch;
+        }
+    }
+
+    /**
+     * Writes any pending snapshot and journal records to file. Safe to call from any thread.
+     */
+    public void flushJournal(String filePath) {
+        synchronized (journalWriteLock) {
+            String snapshot, records;
+            long epoch;
+            synchronized (journalLock) {
+                snapshot = journalPendingSnapshot;
+                journalPendingSnapshot = null;
+                records = journalPendingRecords.length() > 0 ? journalPendingRecords.toString() : null;
+                journalPendingRecords.setLength(0);
+                epoch = journalPendingEpoch;
+            }
+            File journalFile = new File(filePath + ".log");
+            if (snapshot != null) {
+                if (!CoreUtilities.journallingFileSave(filePath + ".dat", snapshot)) {
+                    // Keep the old journal in place, and retry this snapshot (with any records that follow it) on the next flush
+                    synchronized (journalLock) {
+                        if (journalPendingSnapshot == null) {
+                            journalPendingSnapshot = snapshot;
+                            if (records != null) {
+                                journalPendingRecords.insert(0, records);
+                            }
+                        }
+                    }
+                    return;
+                }
+                if (journalFile.exists()) {
+                    journalFile.delete();
+                }
+            }
+            if (records != null) {
+                if (!journalFile.exists() || journalFile.length() == 0) {
+                    records = EPOCH_PREFIX + epoch + "\n" + records;
+                }
+                CoreUtilities.appendToFile(journalFile.getPath(), records);
+            }
+        }
+    }
 }
@@ -179,27 +179,22 @@ public class ElementTag implements ObjectTag {
     }
 
     public ElementTag(int integer) {
-        this.prefix = "number";
-        this.element = String.valueOf(integer);
-        this.isPlainText = true;
+        this((long) integer);
     }
 
     public ElementTag(byte byt) {
-        this.prefix = "number";
-        this.element = String.valueOf(byt);
-        this.isPlainText = true;
+        this((long) byt);
     }
 
     public ElementTag(short shrt) {
-        this.prefix = "number";
-        this.element = String.valueOf(shrt);
-        this.isPlainText = true;
+        this((long) shrt);
     }
 
     public ElementTag(long lng) {
         this.prefix = "number";
         this.element = String.valueOf(lng);
         this.isPlainText = true;
+        this.numberCache = new NumberCache(PARSE_VALID, lng, PARSE_VALID, true, lng, null);
     }
 
     public ElementTag(BigDecimal bdl) {
@@ -229,6 +224,137 @@ public class ElementTag implements ObjectTag {
 
     static final BigDecimal max = new BigDecimal("10E1000");
 
+    private static final byte PARSE_UNKNOWN = 0, PARSE_VALID = 1, PARSE_INVALID = 2;
+
+    /**
+     * Immutable holder for the cached results of numeric parsing.
+     * Updates replace the whole holder with a copy, and all fields are final, so any thread that sees a holder sees its complete contents.
+     * Two threads racing to update may drop each other's result, which just means it gets parsed again later.
+     */
+    private static final class NumberCache {
+
+        static final NumberCache EMPTY = new NumberCache(PARSE_UNKNOWN, 0, PARSE_UNKNOWN, false, 0, null);
+
+        /**
+         * Result of 'isExactLong' (one of the PARSE_ constants), and the parsed value if valid.
+         */
+        final byte exactLongState;
+
+        final long exactLong;
+
+        /**
+         * Result of 'isDouble' (one of the PARSE_ constants).
+         */
+        final byte doubleState;
+
+        /**
+         * Result of 'asDouble', valid only when 'hasDoubleValue' is set.
+         */
+        final boolean hasDoubleValue;
+
+        final double doubleValue;
+
+        /**
+         * Result of 'asBigDecimal', or null if not yet parsed.
+         */
+        final BigDecimal bigDecimalValue;
+
+        NumberCache(byte exactLongState, long exactLong, byte doubleState, boolean hasDoubleValue, double doubleValue, BigDecimal bigDecimalValue) {
+            this.exactLongState = exactLongState;
+            this.exactLong = exactLong;
+            this.doubleState = doubleState;
+            this.hasDoubleValue = hasDoubleValue;
+            this.doubleValue = doubleValue;
+            this.bigDecimalValue = bigDecimalValue;
+        }
+
+        NumberCache withExactLong(byte state, long value) {
+            return new NumberCache(state, value, doubleState, hasDoubleValue, doubleValue, bigDecimalValue);
+        }
+
+        NumberCache withDoubleState(byte state, double value) {
+            return state == PARSE_VALID ? new NumberCache(exactLongState, exactLong, state, true, value, bigDecimalValue)
+                    : new NumberCache(exactLongState, exactLong, state, hasDoubleValue, doubleValue, bigDecimalValue);
+        }
+
+        NumberCache withDouble(double value) {
+            return new NumberCache(exactLongState, exactLong, doubleState, true, value, bigDecimalValue);
+        }
+
+        NumberCache withBigDecimal(BigDecimal value) {
+            return new NumberCache(exactLongState, exactLong, doubleState, hasDoubleValue, doubleValue, value);
+        }
+    }
+
+    /**
+     * Cached numeric parse results, or null if nothing has been parsed yet. Allocated lazily so non-numeric elements pay only for the reference.
+     */
+    private NumberCache numberCache;
+
+    private NumberCache getNumberCache() {
+        NumberCache cache = numberCache;
+        return cache == null ? NumberCache.EMPTY : cache;
+    }
+
+    /**
+     * Returns the number cache with the 'isExactLong' result filled in.
+     */
+    private NumberCache exactLongCache() {
+        NumberCache cache = getNumberCache();
+        if (cache.exactLongState == PARSE_UNKNOWN) {
+            byte state = PARSE_INVALID;
+            long value = 0;
+            int len = element.length();
+            int start = len > 0 && (element.charAt(0) == '-' || element.charAt(0) == '+') ? 1 : 0;
+            if (len > start && len - start <= 19) {
+                boolean allDigits = true;
+                for (int i = start; i < len; i++) {
+                    char c = element.charAt(i);
+                    if (c < '0' || c > '9') {
+                        allDigits = false;
+                        break;
+                    }
+                }
+                if (allDigits) {
+                    try {
+                        value = Long.parseLong(element);
+                        state = PARSE_VALID;
+                    }
+                    catch (NumberFormatException ex) {
+                        // Out of range, leave invalid
+                    }
+                }
+            }
+            cache = cache.withExactLong(state, value);
+            numberCache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Returns true if this element is a plain integer that fits in a long (digits with an optional sign, no decimal point, exponent, or percentage).
+     * The parsed value is cached, and available from 'getExactLong'.
+     */
+    public boolean isExactLong() {
+        return exactLongCache().exactLongState == PARSE_VALID;
+    }
+
+    /**
+     * Returns the value of an element that passed 'isExactLong'.
+     */
+    public long getExactLong() {
+        return exactLongCache().exactLong;
+    }
+
+    /**
+     * Creates the result of an integer fast path in a math tag, with the same "decimal" prefix as the general BigDecimal path.
+     */
+    private static ElementTag decimalResult(long value) {
+        ElementTag result = new ElementTag(value);
+        result.prefix = "decimal";
+        return result;
+    }
+
     private BigDecimal getBD(String text) {
         BigDecimal bd = new BigDecimal(text);
         if (bd.compareTo(max) >= 1) {
@@ -244,11 +370,23 @@ public class ElementTag implements ObjectTag {
     public static AsciiMatcher percentageMatcher = new AsciiMatcher("%");
 
     public BigDecimal asBigDecimal() {
-        return getBD(percentageMatcher.trimToNonMatches(element));
+        NumberCache cache = getNumberCache();
+        if (cache.bigDecimalValue == null) {
+            BigDecimal value = getBD(percentageMatcher.trimToNonMatches(element));
+            numberCache = cache.withBigDecimal(value);
+            return value;
+        }
+        return cache.bigDecimalValue;
     }
 
     public double asDouble() {
-        return Double.parseDouble(percentageMatcher.trimToNonMatches(element));
+        NumberCache cache = getNumberCache();
+        if (!cache.hasDoubleValue) {
+            double value = Double.parseDouble(percentageMatcher.trimToNonMatches(element));
+            numberCache = cache.withDouble(value);
+            return value;
+        }
+        return cache.doubleValue;
     }
 
     public float asFloat() {
@@ -269,6 +407,10 @@ public class ElementTag implements ObjectTag {
     }
 
     public long asLong() {
+        NumberCache cache = exactLongCache();
+        if (cache.exactLongState == PARSE_VALID) {
+            return cache.exactLong;
+        }
         try {
             return Long.parseLong(cleanedForLong());
         }
@@ -295,17 +437,46 @@ public class ElementTag implements ObjectTag {
     }
 
     public boolean isDouble() {
-        try {
-            if (!ArgumentHelper.matchesDouble(element)) {
-                return false;
+        NumberCache cache = getNumberCache();
+        if (cache.doubleState == PARSE_UNKNOWN) {
+            byte state = PARSE_INVALID;
+            double value = 0;
+            try {
+                if (ArgumentHelper.matchesDouble(element)) {
+                    value = Double.parseDouble(element);
+                    if (!Double.isNaN(value)) {
+                        state = PARSE_VALID;
+                    }
+                }
             }
-            if (!Double.valueOf(element).isNaN()) {
-                return true;
+            catch (Exception e) {
             }
+            cache = cache.withDoubleState(state, value);
+            numberCache = cache;
         }
-        catch (Exception e) {
+        return cache.doubleState == PARSE_VALID;
+    }
+
+    /**
+     * Compares this number to another, with the same result as comparing their 'asBigDecimal' values.
+     * Plain integers compare exactly as longs, and other decimals compare as doubles when those doubles differ
+     * (rounding to double never reverses an order, but may merge distinct values), so BigDecimal is only needed for ties.
+     * Throws NumberFormatException if either value is not a number.
+     */
+    public int compareNumber(ElementTag other) {
+        if (isExactLong() && other.isExactLong()) {
+            return Long.compare(getExactLong(), other.getExactLong());
         }
-        return false;
+        if (isDouble() && other.isDouble()) {
+            double a = asDouble(), b = other.asDouble();
+            if (a < b) {
+                return -1;
+            }
+            else if (a > b) {
+                return 1;
+            }
+        }
+        return asBigDecimal().compareTo(other.asBigDecimal());
     }
 
     public boolean isFloat() {
@@ -464,7 +635,7 @@ public class ElementTag implements ObjectTag {
         // You should never ever use this tag inside any 'if', 'while', etc. command.
         // -->
         tagProcessor.registerStaticTag(ElementTag.class, ElementTag.class, "is_more_than", (attribute, object, compareVal) -> {
-            return new ElementTag(object.asBigDecimal().compareTo(compareVal.asBigDecimal()) > 0);
+            return new ElementTag(object.compareNumber(compareVal) > 0);
         });
 
         // <--[tag]
@@ -477,7 +648,7 @@ public class ElementTag implements ObjectTag {
         // You should never ever use this tag inside any 'if', 'while', etc. command.
         // -->
         tagProcessor.registerStaticTag(ElementTag.class, ElementTag.class, "is_less_than", (attribute, object, compareVal) -> {
-            return new ElementTag(object.asBigDecimal().compareTo(compareVal.asBigDecimal()) < 0);
+            return new ElementTag(object.compareNumber(compareVal) < 0);
         });
 
         // <--[tag]
@@ -490,7 +661,7 @@ public class ElementTag implements ObjectTag {
         // You should never ever use this tag inside any 'if', 'while', etc. command.
         // -->
         tagProcessor.registerStaticTag(ElementTag.class, ElementTag.class, "is_more_than_or_equal_to", (attribute, object, compareVal) -> {
-            return new ElementTag(object.asBigDecimal().compareTo(compareVal.asBigDecimal()) >= 0);
+            return new ElementTag(object.compareNumber(compareVal) >= 0);
         });
 
         // <--[tag]
@@ -503,7 +674,7 @@ public class ElementTag implements ObjectTag {
         // You should never ever use this tag inside any 'if', 'while', etc. command.
         // -->
         tagProcessor.registerStaticTag(ElementTag.class, ElementTag.class, "is_less_than_or_equal_to", (attribute, object, compareVal) -> {
-            return new ElementTag(object.asBigDecimal().compareTo(compareVal.asBigDecimal()) <= 0);
+            return new ElementTag(object.compareNumber(compareVal) <= 0);
         });
 
         // <--[tag]
@@ -1793,6 +1964,14 @@ public class ElementTag implements ObjectTag {
         // Returns the element plus a number.
         // -->
         TagRunnable.ObjectWithParamInterface<ElementTag, ElementTag, ElementTag> addRunnable = (attribute, object, second) -> {
+            if (object.isExactLong() && second.isExactLong()) {
+                try {
+                    return decimalResult(Math.addExact(object.getExactLong(), second.getExactLong()));
+                }
+                catch (ArithmeticException ex) {
+                    // Overflow, use BigDecimal below
+                }
+            }
             if (!object.isDouble() || !second.isDouble()) {
                 attribute.echoError("Element '" + object + "' is not a valid decimal number!");
                 return null;
@@ -1816,6 +1995,12 @@ public class ElementTag implements ObjectTag {
         // Returns the element divided by a number.
         // -->
         TagRunnable.ObjectWithParamInterface<ElementTag, ElementTag, ElementTag> divRunnable = (attribute, object, second) -> {
+            if (object.isExactLong() && second.isExactLong()) {
+                long a = object.getExactLong(), b = second.getExactLong();
+                if (b != 0 && a % b == 0 && !(a == Long.MIN_VALUE && b == -1)) {
+                    return decimalResult(a / b);
+                }
+            }
             if (!object.isDouble() || !second.isDouble()) {
                 attribute.echoError("Element '" + object + "' or '" + second + "' is not a valid decimal number!");
                 return null;
@@ -1839,6 +2024,9 @@ public class ElementTag implements ObjectTag {
         // Returns the remainder of the element divided by a number.
         // -->
         TagRunnable.ObjectWithParamInterface<ElementTag, ElementTag, ElementTag> modRunnable = (attribute, object, second) -> {
+            if (object.isExactLong() && second.isExactLong() && second.getExactLong() != 0) {
+                return decimalResult(object.getExactLong() % second.getExactLong());
+            }
             if (!object.isDouble() || !second.isDouble()) {
                 attribute.echoError("Element '" + object + "' or '" + second + "' is not a valid decimal number!");
                 return null;
@@ -1864,6 +2052,14 @@ public class ElementTag implements ObjectTag {
         // Returns the element multiplied by a number.
         // -->
         TagRunnable.ObjectWithParamInterface<ElementTag, ElementTag, ElementTag> mulRunnable = (attribute, object, second) -> {
+            if (object.isExactLong() && second.isExactLong()) {
+                try {
+                    return decimalResult(Math.multiplyExact(object.getExactLong(), second.getExactLong()));
+                }
+                catch (ArithmeticException ex) {
+                    // Overflow, use BigDecimal below
+                }
+            }
             if (!object.isDouble() || !second.isDouble()) {
                 attribute.echoError("Element '" + object + "' or '" + second + "' is not a valid decimal number!");
                 return null;
@@ -1887,6 +2083,14 @@ public class ElementTag implements ObjectTag {
         // Returns the element minus a number.
         // -->
         TagRunnable.ObjectWithParamInterface<ElementTag, ElementTag, ElementTag> subRunnable = (attribute, object, second) -> {
+            if (object.isExactLong() && second.isExactLong()) {
+                try {
+                    return decimalResult(Math.subtractExact(object.getExactLong(), second.getExactLong()));
+                }
+                catch (ArithmeticException ex) {
+                    // Overflow, use BigDecimal below
+                }
+            }
             if (!object.isDouble() || !second.isDouble()) {
                 attribute.echoError("Element '" + object + "' or '" + second + "' is not a valid decimal number!");
                 return null;
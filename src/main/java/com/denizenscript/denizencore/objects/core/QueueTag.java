@@ -67,6 +67,9 @@ public class QueueTag implements ObjectTag, Adjustable, FlaggableObject {
 
     public QueueTag(ScriptQueue queue) {
         this.queue = queue;
+        if (queue != null && queue.lightweight) {
+            queue.ensureRegistered();
+        }
     }
 
     String prefix = "Queue";
@@ -321,10 +321,18 @@ public class ScriptEntry implements Cloneable, Debuggable, Iterable<Argument> {
 
     @Override
     public ScriptEntry clone() {
+        return cloneWithData(entryData);
+    }
+
+    /**
+     * Clones this entry for execution, with a copy of the given entry data.
+     * The compiled 'internal' data is shared, and the per-execution object map is only created if a command adds objects.
+     */
+    public ScriptEntry cloneWithData(ScriptEntryData data) {
         try {
             ScriptEntry se = (ScriptEntry) super.clone();
-            se.objects = internal.defObjects == 0 ? null : new HashMap<>(internal.defObjects);
-            se.entryData = entryData.clone();
+            se.objects = null;
+            se.entryData = data.clone();
             se.entryData.scriptEntry = se;
             se.updateContext();
             return se;
@@ -687,6 +695,16 @@ public class ScriptEntry implements Cloneable, Debuggable, Iterable<Argument> {
         this.data = result;
     }
 
+    /**
+     * Clears the per-execution state of an entry that has finished running, so that the same instance can be executed again.
+     * Used by loops to re-run their body without cloning it every iteration.
+     */
+    public void resetForReuse() {
+        objects = null;
+        data = null;
+        saveName = null;
+    }
+
     public void copyFrom(ScriptEntry entry) {
         entryData = entry.entryData.clone();
         setSendingQueue(entry.getResidingQueue());
@@ -716,6 +734,9 @@ public class ScriptEntry implements Cloneable, Debuggable, Iterable<Argument> {
     @Deprecated
     public <T> T getObjectTag(String key) {
         try {
+            if (objects == null) {
+                return null;
+            }
             Object gotten = objects.get(key);
             if (gotten == null) {
                 return null;
@@ -7,9 +7,16 @@ import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.DenizenCore;
 
 import java.io.*;
+import java.nio.charset.CharsetDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 /**
  * Reloads and retrieves information from the scripts folder.
@@ -98,6 +105,13 @@ public class ScriptHelper {
     }
 
     public static String clearComments(String filename, String input, boolean trackSources) {
+        return clearComments(filename, input, trackSources, scriptSourcesInprogress, scriptOriginalNamesInprogress);
+    }
+
+    /**
+     * Variant of clearComments that tracks sources into the given maps rather than the shared in-progress maps, so it can be safely run on several files at once.
+     */
+    public static String clearComments(String filename, String input, boolean trackSources, Map<String, String> sources, Map<String, String> originalNames) {
         StringBuilder result = new StringBuilder(input.length());
         String[] lines = input.replace("\t", "    ").replace("\r", "").split("\n");
         boolean hasAnyScript = false;
@@ -106,8 +120,8 @@ public class ScriptHelper {
             String trimStart = lines[lineNum].replaceAll("^[\\s]+", "");
             if (trackSources && !trimmedLine.startsWith("#") && trimStart.length() == lines[lineNum].length() && trimmedLine.endsWith(":") && trimmedLine.length() > 1) {
                 String name = trimmedLine.substring(0, trimmedLine.length() - 1).replace('\"', '\'').replace("'", "");
-                scriptSourcesInprogress.put(CoreUtilities.toLowerCase(name), filename);
-                scriptOriginalNamesInprogress.put(CoreUtilities.toLowerCase(name), name);
+                sources.put(CoreUtilities.toLowerCase(name), filename);
+                originalNames.put(CoreUtilities.toLowerCase(name), name);
                 result.append(CoreUtilities.toUpperCase(name)).append(":\n");
                 hasAnyScript = true;
             }
@@ -157,11 +171,15 @@ public class ScriptHelper {
 
     public static String convertStreamToString(InputStream is, boolean defaultUTF8) {
         Scanner s;
-        if (CoreConfiguration.scriptEncoding == null && !defaultUTF8) {
+        CharsetDecoder encoding = CoreConfiguration.scriptEncoding;
+        if (encoding == null && !defaultUTF8) {
             s = new Scanner(is);
         }
         else {
-            s = new Scanner(new InputStreamReader(is, CoreConfiguration.scriptEncoding == null ? StandardCharsets.UTF_8.newDecoder() : CoreConfiguration.scriptEncoding));
+            // Decoders are stateful and scripts may load on several threads at once, so never share the configured one
+            CharsetDecoder decoder = encoding == null ? StandardCharsets.UTF_8.newDecoder()
+                    : encoding.charset().newDecoder().onMalformedInput(encoding.malformedInputAction()).onUnmappableCharacter(encoding.unmappableCharacterAction());
+            s = new Scanner(new InputStreamReader(is, decoder));
         }
         s.useDelimiter("\\A");
         return s.hasNext() ? s.next() : "";
@@ -177,6 +195,188 @@ public class ScriptHelper {
         }
     }
 
+    /**
+     * The result of loading a single script file, to be merged in file order after all files are loaded.
+     */
+    private static class FileLoadResult {
+
+        public YamlConfiguration yaml;
+
+        public boolean isEmpty;
+
+        public Throwable error;
+
+        public HashMap<String, String> sources = new HashMap<>(), originalNames = new HashMap<>();
+
+        public FileLoadResult duplicate() {
+            FileLoadResult result = new FileLoadResult();
+            result.yaml = yaml == null ? null : yaml.duplicate();
+            result.isEmpty = isEmpty;
+            result.error = error;
+            result.sources = sources;
+            result.originalNames = originalNames;
+            return result;
+        }
+    }
+
+    /**
+     * A previously loaded script file, for 'scriptReloadIncremental' mode.
+     */
+    private static class CachedScriptFile {
+
+        public long lastModified, length;
+
+        public byte[] hash;
+
+        public FileLoadResult result;
+    }
+
+    /**
+     * Script files loaded by the last reload, by absolute path (only filled when 'scriptReloadIncremental' or 'scriptPersistentCache' is enabled).
+     */
+    private static final ConcurrentHashMap<String, CachedScriptFile> scriptFileCache = new ConcurrentHashMap<>();
+
+    /**
+     * Whether 'scriptFileCache' differs from what's stored in the persistent cache file.
+     */
+    private static volatile boolean scriptFileCacheChanged = false;
+
+    private static boolean persistentCacheLoaded = false;
+
+    private static final String PERSISTENT_CACHE_HEADER = "DenizenScriptCache-1";
+
+    public static File getPersistentCacheFile() {
+        return new File(DenizenCore.implementation.getDataFolder(), "cache/script_cache.dat");
+    }
+
+    private static void writeStringMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            YamlConfiguration.writeBinaryString(out, entry.getKey());
+            YamlConfiguration.writeBinaryString(out, entry.getValue());
+        }
+    }
+
+    private static void readStringMap(DataInputStream in, Map<String, String> map) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            map.put(YamlConfiguration.readBinaryString(in), YamlConfiguration.readBinaryString(in));
+        }
+    }
+
+    /**
+     * Loads the persistent script cache file (if any) into 'scriptFileCache'.
+     * The cache is only valid for the same core version, as script pre-processing may change between versions.
+     */
+    private static void loadPersistentCache() { // Note: can be called async
+        File cacheFile = getPersistentCacheFile();
+        if (!cacheFile.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (!in.readUTF().equals(PERSISTENT_CACHE_HEADER) || !in.readUTF().equals(DenizenCore.VERSION)) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = YamlConfiguration.readBinaryString(in);
+                CachedScriptFile cached = new CachedScriptFile();
+                cached.lastModified = in.readLong();
+                cached.length = in.readLong();
+                cached.hash = new byte[in.readInt()];
+                in.readFully(cached.hash);
+                cached.result = new FileLoadResult();
+                cached.result.isEmpty = in.readBoolean();
+                readStringMap(in, cached.result.sources);
+                readStringMap(in, cached.result.originalNames);
+                cached.result.yaml = YamlConfiguration.readBinaryConfiguration(in);
+                scriptFileCache.put(path, cached);
+            }
+        }
+        catch (Throwable ex) {
+            Debug.echoError("Failed to read script cache file, scripts will be fully reloaded.");
+            Debug.echoError(ex);
+            scriptFileCache.clear();
+        }
+    }
+
+    private static void savePersistentCache() { // Note: can be called async
+        File cacheFile = getPersistentCacheFile();
+        File tempFile = new File(cacheFile.getPath() + "~1");
+        try {
+            tempFile.getParentFile().mkdirs();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeUTF(PERSISTENT_CACHE_HEADER);
+                out.writeUTF(DenizenCore.VERSION);
+                out.writeInt(scriptFileCache.size());
+                for (Map.Entry<String, CachedScriptFile> entry : scriptFileCache.entrySet()) {
+                    CachedScriptFile cached = entry.getValue();
+                    YamlConfiguration.writeBinaryString(out, entry.getKey());
+                    out.writeLong(cached.lastModified);
+                    out.writeLong(cached.length);
+                    out.writeInt(cached.hash.length);
+                    out.write(cached.hash);
+                    out.writeBoolean(cached.result.isEmpty);
+                    writeStringMap(out, cached.result.sources);
+                    writeStringMap(out, cached.result.originalNames);
+                    YamlConfiguration.writeBinaryValue(out, cached.result.yaml == null ? null : cached.result.yaml.contents);
+                }
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (Throwable ex) {
+            Debug.echoError("Failed to save script cache file.");
+            Debug.echoError(ex);
+        }
+    }
+
+    private static FileLoadResult loadFile(File f) { // Note: called async, on multiple threads at once
+        String filename = f.getAbsolutePath();
+        boolean incremental = CoreConfiguration.scriptReloadIncremental || CoreConfiguration.scriptPersistentCache;
+        CachedScriptFile cached = incremental ? scriptFileCache.get(filename) : null;
+        long lastModified = f.lastModified(), length = f.length();
+        if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+            return cached.result.duplicate();
+        }
+        FileLoadResult result = new FileLoadResult();
+        try {
+            byte[] data = Files.readAllBytes(f.toPath());
+            byte[] hash = incremental ? MessageDigest.getInstance("SHA-256").digest(data) : null;
+            if (cached != null && Arrays.equals(cached.hash, hash)) {
+                cached.lastModified = lastModified;
+                scriptFileCacheChanged = true;
+                return cached.result.duplicate();
+            }
+            String script = clearComments(filename, convertStreamToString(new ByteArrayInputStream(data), filename.endsWith(".dsc")), true, result.sources, result.originalNames);
+            result.yaml = YamlConfiguration.load(script);
+            String saved = result.yaml != null ? result.yaml.saveToString(false) : null;
+            result.isEmpty = saved == null || saved.length() == 0;
+            if (incremental) {
+                CachedScriptFile newCache = new CachedScriptFile();
+                newCache.lastModified = lastModified;
+                newCache.length = length;
+                newCache.hash = hash;
+                newCache.result = result;
+                scriptFileCache.put(filename, newCache);
+                scriptFileCacheChanged = true;
+                return result.duplicate();
+            }
+        }
+        catch (Throwable ex) {
+            result.error = ex;
+        }
+        return result;
+    }
+
+    private static ForkJoinPool loadingPool;
+
+    private static synchronized ForkJoinPool getLoadingPool() {
+        if (loadingPool == null) {
+            loadingPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        return loadingPool;
+    }
+
     private static ArrayList<YamlConfiguration> buildScriptList() { // Note: can be called async
         scriptSourcesInprogress = new HashMap<>();
         scriptOriginalNamesInprogress = new HashMap<>();
@@ -192,27 +392,48 @@ public class ScriptHelper {
             List<File> files = CoreUtilities.listDScriptFiles(file);
             if (files.size() > 0 || buildAdditionalScripts.size() > 0) {
                 ArrayList<YamlConfiguration> outList = new ArrayList<>();
-                YamlConfiguration yaml;
-                for (File f : files) {
-                    String fileName = f.getAbsolutePath().substring(file.getAbsolutePath().length());
+                // Files are read and parsed in parallel, then merged in the original file order so that results don't depend on thread timing
+                FileLoadResult[] results = new FileLoadResult[files.size()];
+                if (CoreConfiguration.scriptPersistentCache && !persistentCacheLoaded) {
+                    persistentCacheLoaded = true;
+                    loadPersistentCache();
+                }
+                getLoadingPool().submit(() -> IntStream.range(0, results.length).parallel().forEach(i -> results[i] = loadFile(files.get(i)))).get();
+                if (CoreConfiguration.scriptReloadIncremental || CoreConfiguration.scriptPersistentCache) {
+                    HashSet<String> paths = new HashSet<>(files.size());
+                    for (File f : files) {
+                        paths.add(f.getAbsolutePath());
+                    }
+                    if (scriptFileCache.keySet().retainAll(paths)) {
+                        scriptFileCacheChanged = true;
+                    }
+                    if (CoreConfiguration.scriptPersistentCache && scriptFileCacheChanged) {
+                        scriptFileCacheChanged = false;
+                        savePersistentCache();
+                    }
+                }
+                else {
+                    scriptFileCache.clear();
+                }
+                for (int i = 0; i < results.length; i++) {
+                    FileLoadResult result = results[i];
+                    String fileName = files.get(i).getAbsolutePath().substring(file.getAbsolutePath().length());
                     if (CoreConfiguration.debugLoadingInfo) {
                         Debug.log("Processing '" + fileName + "'... ");
                     }
-                    try {
-                        yaml = loadConfig(f.getAbsolutePath(), new FileInputStream(f));
-                        String saved = yaml != null ? yaml.saveToString(false) : null;
-                        if (saved != null && saved.length() > 0) {
-                            outList.add(yaml);
-                        }
-                        else {
-                            Debug.echoError("Error parsing '<Y>" + fileName + "<W>'! This script has been skipped. No internal error - is the file empty?");
-                            hadError = true;
-                        }
-                    }
-                    catch (Exception e) {
+                    scriptSourcesInprogress.putAll(result.sources);
+                    scriptOriginalNamesInprogress.putAll(result.originalNames);
+                    if (result.error != null) {
                         Debug.echoError("Error parsing '<Y>" + fileName + "<W>'!");
                         hadError = true;
-                        Debug.echoError(e);
+                        Debug.echoError(result.error);
+                    }
+                    else if (result.isEmpty) {
+                        Debug.echoError("Error parsing '<Y>" + fileName + "<W>'! This script has been skipped. No internal error - is the file empty?");
+                        hadError = true;
+                    }
+                    else {
+                        outList.add(result.yaml);
                     }
                 }
                 for (Consumer<List<YamlConfiguration>> additional : buildAdditionalScripts) {
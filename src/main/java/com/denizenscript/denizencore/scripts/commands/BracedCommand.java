@@ -37,6 +37,32 @@ public abstract class BracedCommand extends AbstractCommand {
         return getBracedCommands(scriptEntry, true);
     }
 
+    /**
+     * Returns whether a loop's built body (including its callback entry) can be kept and re-injected for later iterations, rather than cloned again.
+     * Bodies with waitable ('~') entries are excluded, as a late completion of a prior iteration could otherwise release a later one.
+     */
+    public static boolean canReuseLoopBody(List<ScriptEntry> body) {
+        if (!CoreConfiguration.loopReuseEntries) {
+            return false;
+        }
+        for (ScriptEntry entry : body) {
+            if (entry.internal.waitfor) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resets a reusable loop body (see 'canReuseLoopBody') for its next iteration, and returns it.
+     */
+    public static List<ScriptEntry> resetLoopBody(List<ScriptEntry> body) {
+        for (ScriptEntry entry : body) {
+            entry.resetForReuse();
+        }
+        return body;
+    }
+
     public static List<ScriptEntry> getBracedCommandsDirect(ScriptEntry scriptEntry, ScriptEntry copyFrom) {
         if (scriptEntry == null) {
             return null;
@@ -7,7 +7,7 @@ import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.objects.core.ListTag;
 
-import java.math.BigDecimal;
+import com.denizenscript.denizencore.objects.core.ElementTag;
 
 public class Comparable {
 
@@ -74,9 +74,7 @@ public class Comparable {
 
     private static boolean compareDecimal(ObjectTag objA, ObjectTag objB, Operator operator, TagContext context) {
         try {
-            BigDecimal bigDecA = objA.asElement().asBigDecimal();
-            BigDecimal bigDecB = objB.asElement().asBigDecimal();
-            int compared = bigDecA.compareTo(bigDecB);
+            int compared = objA.asElement().compareNumber(objB.asElement());
             switch (operator) {
                 case LESS:
                     return compared < 0;
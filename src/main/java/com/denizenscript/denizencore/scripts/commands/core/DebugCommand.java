@@ -1,5 +1,7 @@
 package com.denizenscript.denizencore.scripts.commands.core;
 
+import com.denizenscript.denizencore.events.ScriptEvent;
+import com.denizenscript.denizencore.exceptions.InvalidArgumentsRuntimeException;
 import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.objects.core.ScriptTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
@@ -9,9 +11,13 @@ import com.denizenscript.denizencore.scripts.commands.Holdable;
 import com.denizenscript.denizencore.scripts.commands.generator.*;
 import com.denizenscript.denizencore.scripts.containers.ScriptContainer;
 import com.denizenscript.denizencore.scripts.containers.core.FormatScriptContainer;
+import com.denizenscript.denizencore.scripts.queues.ScriptQueue;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.utilities.debugging.DebugSubmitter;
+import com.denizenscript.denizencore.utilities.debugging.LatencyHistogram;
+
+import java.util.List;
 
 public class DebugCommand extends AbstractCommand implements Holdable {
 
@@ -52,6 +58,7 @@ public class DebugCommand extends AbstractCommand implements Holdable {
     // REPORT: normally used to describe the arguments of a command, requires a name, hideable.
     // EXCEPTION: outputs a full java stacktrace.
     // RECORD: Use message 'start' to start recording, 'submit' to submit a recording, or 'cancel' to cancel a recording.
+    // EVENT_STATS: logs per-path script event run time stats (see <@link tag util.event_path_stats>), slowest first. Use message 'all' to show every path, or a number to show that many (defaults to 10).
     //
     // @Tags
     // <entry[saveName].submitted> returns the submit link (if any).
@@ -72,6 +79,10 @@ public class DebugCommand extends AbstractCommand implements Holdable {
     // - ~debug record submit save:mylog
     // - narrate "Recorded log as <entry[mylog].submitted||<red>FAILED>"
     //
+    // @Usage
+    // Use to log the 10 script event paths with the worst tail latency.
+    // - debug event_stats 10
+    //
     // -->
 
     public enum DebugType {
@@ -85,7 +96,8 @@ public class DebugCommand extends AbstractCommand implements Holdable {
         ERROR,
         REPORT,
         EXCEPTION,
-        RECORD
+        RECORD,
+        EVENT_STATS
     }
 
     @Override
@@ -94,11 +106,18 @@ public class DebugCommand extends AbstractCommand implements Holdable {
         tab.add("start", "submit", "cancel");
     }
 
+    public static String formatNanos(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+
     public static void autoExecute(ScriptEntry scriptEntry,
-                                   @ArgRaw @ArgLinear @ArgName("debug") String debug,
+                                   @ArgRaw @ArgLinear @ArgName("debug") @ArgDefaultNull String debug,
                                    @ArgName("type") @ArgDefaultText("output") DebugType dbType,
                                    @ArgPrefixed @ArgName("name") @ArgDefaultNull String name,
                                    @ArgName("format") @ArgPrefixed @ArgDefaultNull ScriptTag formatScript) {
+        if (debug == null && dbType != DebugType.EVENT_STATS) {
+            throw new InvalidArgumentsRuntimeException("Must specify a message.");
+        }
         ScriptFormattingContext formattingContext = null;
         ScriptContainer scriptContainer = scriptEntry.getScriptContainer();
         if (formatScript != null) {
@@ -140,6 +159,29 @@ public class DebugCommand extends AbstractCommand implements Holdable {
                 }
             }
             case EXCEPTION -> Debug.echoError(scriptEntry, new RuntimeException(debug));
+            case EVENT_STATS -> {
+                int limit = 10;
+                if (debug != null && CoreUtilities.equalsIgnoreCase(debug, "all")) {
+                    limit = Integer.MAX_VALUE;
+                }
+                else if (debug != null) {
+                    ElementTag limitElement = new ElementTag(debug);
+                    if (!limitElement.isInt()) {
+                        Debug.echoError(scriptEntry, "Invalid event_stats count '" + debug + "': must be a number or 'all'.");
+                        return;
+                    }
+                    limit = limitElement.asInt();
+                }
+                List<ScriptEvent.ScriptPath> paths = ScriptQueue.getPathsByLatency();
+                Debug.log(name, "Script event path stats (" + paths.size() + " paths, slowest first):");
+                for (int i = 0; i < paths.size() && i < limit; i++) {
+                    ScriptEvent.ScriptPath path = paths.get(i);
+                    LatencyHistogram latency = path.stats_latency;
+                    Debug.log(name, path.container.getName() + " '" + (path.fireAfter ? "after " : "on ") + path.event + "': fires=" + latency.count + ", rejections=" + path.stats_rejections
+                            + ", p50=" + formatNanos(latency.getPercentile(50)) + ", p99=" + formatNanos(latency.getPercentile(99)) + ", max=" + formatNanos(latency.max)
+                            + ", total=" + formatNanos(latency.total));
+                }
+            }
             case RECORD -> {
                 String form = CoreUtilities.toLowerCase(debug);
                 switch (form) {
@@ -14,6 +14,7 @@ import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
@@ -134,7 +135,7 @@ public class ImageCommand extends AbstractCommand implements Holdable {
                     }
                 };
                 if (scriptEntry.shouldWaitFor()) {
-                    DenizenCore.runAsync(readImage);
+                    DenizenCore.runAsync(AsyncTaskRunner.Subsystem.FILE, readImage);
                 }
                 else {
                     readImage.run();
@@ -167,7 +168,7 @@ public class ImageCommand extends AbstractCommand implements Holdable {
                     }
                 };
                 if (scriptEntry.shouldWaitFor()) {
-                    DenizenCore.runAsync(saveImage);
+                    DenizenCore.runAsync(AsyncTaskRunner.Subsystem.FILE, saveImage);
                 }
                 else {
                     saveImage.run();
@@ -12,8 +12,7 @@ import com.denizenscript.denizencore.scripts.commands.generator.*;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
-import com.denizenscript.denizencore.utilities.scheduling.AsyncSchedulable;
-import com.denizenscript.denizencore.utilities.scheduling.OneTimeSchedulable;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 import com.mongodb.client.*;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.result.InsertOneResult;
@@ -207,7 +206,7 @@ public class MongoCommand extends AbstractCommand implements Holdable {
                         scriptEntry.setFinished(true);
                         return;
                     }
-                    DenizenCore.schedule(new AsyncSchedulable(new OneTimeSchedulable(() -> {
+                    DenizenCore.runAsync(AsyncTaskRunner.Subsystem.MONGO, () -> {
                         String conStr = uri.getValue();
                         if (!conStr.startsWith("mongodb://") && !conStr.startsWith("mongodb+srv://")) {
                             conStr = "mongodb://" + conStr;
@@ -243,7 +242,7 @@ public class MongoCommand extends AbstractCommand implements Holdable {
                             Debug.echoDebug(scriptEntry, "Successfully connected to Mongo server.");
                             scriptEntry.setFinished(true);
                         });
-                    }, 0)));
+                    });
                     return;
                 }
                 if (connection == null) {
@@ -427,7 +426,7 @@ public class MongoCommand extends AbstractCommand implements Holdable {
             }
         };
         if (!scriptEntry.shouldWaitFor()) {
-            DenizenCore.schedule(new AsyncSchedulable(new OneTimeSchedulable(runnable, 0)));
+            DenizenCore.runAsync(AsyncTaskRunner.Subsystem.MONGO, runnable);
         }
         else {
             runnable.run();
@@ -16,6 +16,7 @@ import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.objects.core.ListTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.tags.core.EscapeTagUtil;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 
 import java.io.File;
 import java.sql.*;
@@ -254,7 +255,7 @@ public class SQLCommand extends AbstractCommand implements Holdable {
                     return;
                 }
                 final String passwordToUse = passwordRaw;
-                DenizenCore.runAsync(() -> {
+                DenizenCore.runAsync(AsyncTaskRunner.Subsystem.SQL, () -> {
                     Connection con = null;
                     if (CoreConfiguration.debugVerbose) {
                         Debug.echoDebug(scriptEntry, "Connecting to " + server.asString());
@@ -361,7 +362,7 @@ public class SQLCommand extends AbstractCommand implements Holdable {
                     }
                 };
                 if (scriptEntry.shouldWaitFor()) {
-                    DenizenCore.runAsync(doQuery);
+                    DenizenCore.runAsync(AsyncTaskRunner.Subsystem.SQL, doQuery);
                 }
                 else {
                     doQuery.run();
@@ -418,7 +419,7 @@ public class SQLCommand extends AbstractCommand implements Holdable {
                     }
                 };
                 if (scriptEntry.shouldWaitFor()) {
-                    DenizenCore.runAsync(doUpdate);
+                    DenizenCore.runAsync(AsyncTaskRunner.Subsystem.SQL, doUpdate);
                 }
                 else {
                     doUpdate.run();
@@ -11,6 +11,7 @@ import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.ReflectionHelper;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 import com.denizenscript.denizencore.utilities.scheduling.Schedulable;
 import com.denizenscript.denizencore.utilities.text.StringHolder;
 
@@ -174,8 +175,7 @@ public class WebGetCommand extends AbstractCommand implements Holdable {
             Debug.echoError("Must have a valid (HTTP/HTTPS) URL! Attempted: " + originalUrl.asString()); // Note: use original url for error, in case of secret input
             return;
         }
-        Thread thr = new Thread(() -> webGet(scriptEntry, finalData, method, urlFinal, timeout, headersFinal, saveFile, hideFailure, urlIsSecret));
-        thr.start();
+        DenizenCore.runAsync(AsyncTaskRunner.Subsystem.WEB, () -> webGet(scriptEntry, finalData, method, urlFinal, timeout, headersFinal, saveFile, hideFailure, urlIsSecret));
     }
 
     public static void writeToFile(InputStream in, String saveFile) throws Exception {
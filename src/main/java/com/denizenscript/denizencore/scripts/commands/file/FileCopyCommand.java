@@ -10,6 +10,7 @@ import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 
 import java.io.File;
 import java.nio.file.Files;
@@ -120,7 +121,7 @@ public class FileCopyCommand extends AbstractCommand implements Holdable {
             }
         };
         if (scriptEntry.shouldWaitFor()) {
-            DenizenCore.runAsync(runme);
+            DenizenCore.runAsync(AsyncTaskRunner.Subsystem.FILE, runme);
         }
         else {
             runme.run();
@@ -9,6 +9,7 @@ import com.denizenscript.denizencore.scripts.commands.generator.ArgName;
 import com.denizenscript.denizencore.scripts.commands.generator.ArgPrefixed;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -76,7 +77,7 @@ public class FileWriteCommand extends AbstractCommand implements Holdable {
             }
         };
         if (scriptEntry.shouldWaitFor()) {
-            DenizenCore.runAsync(runme);
+            DenizenCore.runAsync(AsyncTaskRunner.Subsystem.FILE, runme);
         }
         else {
             runme.run();
@@ -8,6 +8,7 @@ import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -147,7 +148,7 @@ public class LogCommand extends AbstractCommand implements Holdable {
             }
         };
         if (scriptEntry.shouldWaitFor()) {
-            DenizenCore.runAsync(run);
+            DenizenCore.runAsync(AsyncTaskRunner.Subsystem.FILE, run);
         }
         else {
             run.run();
@@ -22,6 +22,7 @@ import com.denizenscript.denizencore.utilities.data.ActionableDataProvider;
 import com.denizenscript.denizencore.utilities.data.DataAction;
 import com.denizenscript.denizencore.utilities.data.DataActionHelper;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 import com.denizenscript.denizencore.utilities.text.StringHolder;
 import org.json.JSONObject;
 
@@ -301,7 +302,7 @@ public class YamlCommand extends AbstractCommand implements Holdable {
                     }
                 };
                 if (scriptEntry.shouldWaitFor()) {
-                    DenizenCore.runAsync(loadRunnable);
+                    DenizenCore.runAsync(AsyncTaskRunner.Subsystem.FILE, loadRunnable);
                 }
                 else {
                     loadRunnable.run();
@@ -366,7 +367,7 @@ public class YamlCommand extends AbstractCommand implements Holdable {
                             scriptEntry.setFinished(true);
                         };
                         if (scriptEntry.shouldWaitFor()) {
-                            DenizenCore.runAsync(saveRunnable);
+                            DenizenCore.runAsync(AsyncTaskRunner.Subsystem.FILE, saveRunnable);
                         }
                         else {
                             saveRunnable.run();
@@ -86,6 +86,7 @@ public class ForeachCommand extends BracedCommand {
         public List<String> keys;
         public String valueName, keyName;
         public ObjectTag originalValue, originalKeyValue, originalIndexValue;
+        public List<ScriptEntry> body;
 
         public void reapplyAtEnd(ScriptQueue queue) {
             queue.addDefinition(valueName, originalValue);
@@ -201,6 +202,10 @@ public class ForeachCommand extends BracedCommand {
                         queue.addDefinition(data.keyName, new ElementTag(data.keys.get(data.index - 1)));
                     }
                     queue.addDefinition(data.valueName, data.list.getObject(data.index - 1));
+                    if (data.body != null) {
+                        queue.injectEntriesAtStart(BracedCommand.resetLoopBody(data.body));
+                        return;
+                    }
                     List<ScriptEntry> bracedCommands = BracedCommand.getBracedCommandsDirect(scriptEntry.getOwner(), scriptEntry);
                     ScriptEntry callbackEntry = scriptEntry.clone();
                     callbackEntry.setOwner(scriptEntry.getOwner());
@@ -278,6 +283,9 @@ public class ForeachCommand extends BracedCommand {
                 cmd.setInstant(true);
                 cmd.copyFrom(scriptEntry);
             }
+            if (canReuseLoopBody(bracedCommandsList)) {
+                datum.body = bracedCommandsList;
+            }
             scriptEntry.setInstant(true);
             queue.injectEntriesAtStart(bracedCommandsList);
         }
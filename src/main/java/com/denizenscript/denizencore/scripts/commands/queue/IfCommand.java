@@ -2,6 +2,7 @@ package com.denizenscript.denizencore.scripts.commands.queue;
 
 import com.denizenscript.denizencore.exceptions.InvalidArgumentsException;
 import com.denizenscript.denizencore.objects.ObjectTag;
+import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.scripts.commands.Comparable;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
@@ -10,6 +11,8 @@ import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.DenizenCore;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.commands.BracedCommand;
+import com.denizenscript.denizencore.tags.ParseableTag;
+import com.denizenscript.denizencore.tags.TagContext;
 import com.denizenscript.denizencore.tags.TagManager;
 
 import java.util.ArrayList;
@@ -194,7 +197,7 @@ public class IfCommand extends BracedCommand {
         if (CoreConfiguration.debugVerbose) {
             Debug.log("comparisons=" + comparisons + ", sc:" + subcommand + ", ec:" + elsecommand);
         }
-        boolean first_set = new ArgComparer().compare(comparisons, scriptEntry);
+        boolean first_set = CompiledCondition.getFor(scriptEntry, 0, comparisons).evaluate(scriptEntry);
         if (first_set && subcommand != null && subcommand.size() > 0) {
             executeCommandList(subcommand, scriptEntry);
             return;
@@ -237,7 +240,7 @@ public class IfCommand extends BracedCommand {
                             Debug.echoError("Else command has argument '" + key.get(1) + "' which is unknown.");
                             continue;
                         }
-                        if (!new ArgComparer().compare(key.subList(2, key.size()), braceSet.entry)) {
+                        if (!CompiledCondition.getFor(braceSet.entry, z, key.subList(2, key.size())).evaluate(braceSet.entry)) {
                             continue;
                         }
                         Debug.echoDebug(scriptEntry, "<Y>If/else-if chain entry #" + (z + 1) + " passed, running block.");
@@ -274,328 +277,379 @@ public class IfCommand extends BracedCommand {
         }
     }
 
+    /**
+     * Legacy comparison interpreter, replaced by CompiledCondition.
+     */
+    @Deprecated
     public static class ArgComparer {
 
-        List argstemp = null;
-
-        ArgInternal[] argstemp_parsed = null;
+        @Deprecated
+        public boolean compare(List args, ScriptEntry scriptEntry) {
+            List<String> rawArgs = new ArrayList<>(args.size());
+            for (Object arg : args) {
+                rawArgs.add(arg instanceof ScriptEntry.InternalArgument ? ((ScriptEntry.InternalArgument) arg).fullOriginalRawValue : String.valueOf(arg));
+            }
+            return CompiledCondition.compile(rawArgs, scriptEntry).evaluate(scriptEntry);
+        }
+    }
 
-        ScriptEntry scriptEntry = null;
+    /**
+     * A comparison set pre-compiled into a tree, so that the raw argument list only has to be interpreted once per script entry.
+     * Follows the exact same grouping, '&&' / '||' splitting, and operator rules as the original (pre-compilation) if command logic.
+     */
+    public static class CompiledCondition {
 
-        Boolean result = null;
+        public static abstract class Node {
 
-        boolean flip = false;
+            public abstract boolean evaluate(ScriptEntry scriptEntry, TagContext context);
 
-        @Override
-        public String toString() {
-            return "[ArgComp: " + argstemp + " res " + result + "]";
+            public ObjectTag asObject(ScriptEntry scriptEntry, TagContext context) {
+                return new ElementTag(evaluate(scriptEntry, context));
+            }
         }
 
-        public static class ArgInternal {
-
-            boolean negative;
+        public static class ConstantNode extends Node {
 
-            ObjectTag value;
+            public final boolean value;
 
-            boolean boolify() {
-                return value.isTruthy() != negative;
+            public ConstantNode(boolean value) {
+                this.value = value;
             }
 
             @Override
-            public String toString() {
-                return negative ? "!" + value : value.toString();
+            public boolean evaluate(ScriptEntry scriptEntry, TagContext context) {
+                return value;
             }
         }
 
-        public static String procString(Object arg) {
-            if (arg instanceof String) {
-                return (String) arg;
-            }
-            else if (arg instanceof ScriptEntry.InternalArgument) {
-                return ((ScriptEntry.InternalArgument) arg).fullOriginalRawValue;
-            }
-            else if (arg instanceof ArgInternal) {
-                return arg.toString();
-            }
-            else if (arg instanceof ArgComparer) {
-                return ((ArgComparer) arg).compare() ? "true" : "false";
+        public static class ErrorNode extends Node {
+
+            public final String message;
+
+            public ErrorNode(String message) {
+                this.message = message;
             }
-            else if (arg instanceof Boolean) {
-                return ((Boolean) arg) ? "true" : "false";
+
+            @Override
+            public boolean evaluate(ScriptEntry scriptEntry, TagContext context) {
+                Debug.echoError(scriptEntry, message);
+                return false;
             }
-            return arg.toString();
         }
 
-        public static String procStringNoTag(Object arg) {
-            if (arg instanceof String) {
-                return (String) arg;
+        public static class TagNode extends Node {
+
+            public final ParseableTag tag;
+
+            public final boolean negative;
+
+            public final String source;
+
+            public TagNode(ParseableTag tag, boolean negative, String source) {
+                this.tag = tag;
+                this.negative = negative;
+                this.source = source;
             }
-            else if (arg instanceof ScriptEntry.InternalArgument) {
-                return ((ScriptEntry.InternalArgument) arg).fullOriginalRawValue;
+
+            @Override
+            public boolean evaluate(ScriptEntry scriptEntry, TagContext context) {
+                if (CoreConfiguration.debugVerbose) {
+                    Debug.log("Returning comparison for " + (negative ? "!" : "") + source);
+                }
+                return tag.parse(context).isTruthy() != negative;
             }
-            else if (arg instanceof ArgInternal) {
-                return arg.toString();
+
+            @Override
+            public ObjectTag asObject(ScriptEntry scriptEntry, TagContext context) {
+                return tag.parse(context);
             }
-            else if (arg instanceof ArgComparer) {
-                return "<UnTaggedComparison>";
+        }
+
+        public static class GroupNode extends Node {
+
+            public final Node inner;
+
+            public final boolean flip;
+
+            public GroupNode(Node inner, boolean flip) {
+                this.inner = inner;
+                this.flip = flip;
             }
-            else if (arg instanceof Boolean) {
-                return ((Boolean) arg) ? "true" : "false";
+
+            @Override
+            public boolean evaluate(ScriptEntry scriptEntry, TagContext context) {
+                return inner.evaluate(scriptEntry, context) != flip;
             }
-            return arg.toString();
         }
 
-        public boolean tagbool(int arg, boolean canNegate) {
-            if (argstemp_parsed[arg] != null) {
-                return argstemp_parsed[arg].boolify();
+        public static class AndNode extends Node {
+
+            public final Node left, right;
+
+            public AndNode(Node left, Node right) {
+                this.left = left;
+                this.right = right;
             }
-            Object argObj = argstemp.get(arg);
-            if (argObj instanceof String) {
-                return tagify((String) argObj, canNegate).boolify();
+
+            @Override
+            public boolean evaluate(ScriptEntry scriptEntry, TagContext context) {
+                if (!left.evaluate(scriptEntry, context)) {
+                    if (CoreConfiguration.debugVerbose) {
+                        Debug.log("Returning false because false && irrel");
+                    }
+                    return false;
+                }
+                boolean comp = right.evaluate(scriptEntry, context);
+                if (CoreConfiguration.debugVerbose) {
+                    Debug.log("Returning && comparison: " + comp);
+                }
+                return comp;
             }
-            else if (argObj instanceof ScriptEntry.InternalArgument) {
-                // TODO: Special case tag parsing
-                return tagify(((ScriptEntry.InternalArgument) argObj).fullOriginalRawValue, canNegate).boolify();
+        }
+
+        public static class OrNode extends Node {
+
+            public final Node left, right;
+
+            public OrNode(Node left, Node right) {
+                this.left = left;
+                this.right = right;
             }
-            else if (argObj instanceof ArgInternal) {
-                return ((ArgInternal) argObj).boolify();
+
+            @Override
+            public boolean evaluate(ScriptEntry scriptEntry, TagContext context) {
+                if (left.evaluate(scriptEntry, context)) {
+                    if (CoreConfiguration.debugVerbose) {
+                        Debug.log("Returning true because true || irrel");
+                    }
+                    return true;
+                }
+                boolean comp = right.evaluate(scriptEntry, context);
+                if (CoreConfiguration.debugVerbose) {
+                    Debug.log("Returning || comparison: " + comp);
+                }
+                return comp;
             }
-            else if (argObj instanceof ArgComparer) {
-                return ((ArgComparer) argObj).compare();
+        }
+
+        public static class NotNode extends Node {
+
+            public final Node inner;
+
+            public NotNode(Node inner) {
+                this.inner = inner;
             }
-            else if (argObj instanceof Boolean) {
-                return ((Boolean) argObj);
+
+            @Override
+            public boolean evaluate(ScriptEntry scriptEntry, TagContext context) {
+                if (CoreConfiguration.debugVerbose) {
+                    Debug.log("Returning negative comparison");
+                }
+                return !inner.evaluate(scriptEntry, context);
             }
-            return tagify(argObj.toString(), canNegate).boolify();
         }
 
-        public ArgInternal tagify(String arg, boolean canNegate) {
-            ArgInternal toRet = new ArgInternal();
-            if (arg.startsWith("!") && canNegate) {
-                toRet.negative = true;
-                arg = arg.substring(1);
+        public static class CompareNode extends Node {
+
+            public final Node first, second;
+
+            public final Comparable.Operator operator;
+
+            public final boolean negative;
+
+            public final String source;
+
+            public CompareNode(Node first, Node second, Comparable.Operator operator, boolean negative, String source) {
+                this.first = first;
+                this.second = second;
+                this.operator = operator;
+                this.negative = negative;
+                this.source = source;
             }
-            toRet.value = TagManager.tagObject(arg, DenizenCore.implementation.getTagContext(scriptEntry));
-            return toRet;
-        }
 
-        public ArgInternal tagme(int arg, boolean canNegate) {
-            if (argstemp_parsed[arg] != null) {
-                return argstemp_parsed[arg];
+            @Override
+            public boolean evaluate(ScriptEntry scriptEntry, TagContext context) {
+                try {
+                    ObjectTag firstObj = first.asObject(scriptEntry, context);
+                    ObjectTag secondObj = second.asObject(scriptEntry, context);
+                    boolean outcome = Comparable.compare(firstObj, secondObj, operator, negative, scriptEntry.context);
+                    if (scriptEntry.dbCallShouldDebug()) {
+                        Debug.echoDebug(scriptEntry, "Comparing if " + firstObj + (negative ? " not " : " ") + operator.name() + " " + secondObj + " ... " + outcome);
+                    }
+                    return outcome;
+                }
+                catch (Throwable ex) {
+                    Debug.echoError(scriptEntry, "If command syntax invalid - possibly wrong number of arguments (check for stray spaces)? exception: " + ex.getClass().getName() + ": " + ex.getMessage());
+                    if (CoreConfiguration.debugVerbose) {
+                        Debug.echoError("Was comparing " + source);
+                        Debug.echoError(ex);
+                    }
+                    return false;
+                }
             }
-            ArgInternal got = tagify(procString(argstemp.get(arg)), canNegate);
-            argstemp_parsed[arg] = got;
-            return got;
         }
 
-        public ArgComparer construct(List args, ScriptEntry scriptEntry) {
-            argstemp = args;
-            argstemp_parsed = new ArgInternal[args.size()];
-            this.scriptEntry = scriptEntry;
-            return this;
+        public final Node root;
+
+        /**
+         * The raw argument list this condition was compiled from.
+         */
+        public final List<String> source;
+
+        public CompiledCondition(Node root, List<String> source) {
+            this.root = root;
+            this.source = source;
         }
 
-        public boolean compare(List args, ScriptEntry scriptEntry) {
-            construct(args, scriptEntry);
-            return compare();
+        public boolean evaluate(ScriptEntry scriptEntry) {
+            return root.evaluate(scriptEntry, DenizenCore.implementation.getTagContext(scriptEntry));
         }
 
-        public boolean compare() {
-            if (result == null) {
-                result = compareInternal();
-                if (flip) {
-                    result = !result;
+        /**
+         * Returns the compiled condition for the given branch of an entry, compiling and storing it in the entry's shared internal data on first use.
+         * Conditions are stored per branch index, as legacy brace syntax uses the 'if' entry itself for every 'else if' section.
+         * The cache is shared by every execution of the entry, so 'args' must be the raw (unparsed) original arguments, which are the same every run.
+         * Tags within them are compiled against the context of whichever execution compiles first, and parsed fresh against each execution's own context.
+         * If a caller passes a different argument list than the cached one, the condition is recompiled (correct, but slow if done every run).
+         */
+        public static CompiledCondition getFor(ScriptEntry scriptEntry, int branch, List<String> args) {
+            CompiledCondition[] cached = scriptEntry.internal.specialProcessedData instanceof CompiledCondition[] ? (CompiledCondition[]) scriptEntry.internal.specialProcessedData : null;
+            if (cached != null && branch < cached.length && cached[branch] != null && cached[branch].source.equals(args)) {
+                return cached[branch];
+            }
+            if (cached == null || branch >= cached.length) {
+                CompiledCondition[] expanded = new CompiledCondition[branch + 1];
+                if (cached != null) {
+                    System.arraycopy(cached, 0, expanded, 0, cached.length);
                 }
+                cached = expanded;
+                scriptEntry.internal.specialProcessedData = cached;
             }
+            CompiledCondition result = compile(args, scriptEntry);
+            cached[branch] = result;
             return result;
         }
 
-        public boolean compareInternal() {
-            List args = argstemp;
+        public static CompiledCondition compile(List<String> args, ScriptEntry scriptEntry) {
+            List<String> source = new ArrayList<>(args);
+            return new CompiledCondition(compileNode(new ArrayList<>(source), DenizenCore.implementation.getTagContext(scriptEntry)), source);
+        }
+
+        public static String tokenText(Object token) {
+            return token instanceof String ? (String) token : "<UnTaggedComparison>";
+        }
+
+        public static Node compileBool(Object token, boolean canNegate, TagContext context) {
+            if (token instanceof Node) {
+                return (Node) token;
+            }
+            String arg = (String) token;
+            boolean negative = false;
+            if (canNegate && arg.startsWith("!")) {
+                negative = true;
+                arg = arg.substring(1);
+            }
+            return new TagNode(TagManager.parseTextToTag(arg, context), negative, arg);
+        }
+
+        public static Node compileNode(List<Object> args, TagContext context) {
             if (CoreConfiguration.debugVerbose) {
-                Debug.log("Comparing " + args);
+                Debug.log("Compiling comparison " + args);
             }
             if (args.isEmpty()) {
                 if (CoreConfiguration.debugVerbose) {
-                    Debug.log("Args.size == 0, return false");
+                    Debug.log("Args.size == 0, compiled to false");
                 }
-                return false;
+                return new ConstantNode(false);
             }
             else if (args.size() == 1) {
-                if (CoreConfiguration.debugVerbose) {
-                    Debug.log("Returning comparison for " + args.get(0));
-                }
-                return tagbool(0, true);
+                return compileBool(args.get(0), true, context);
             }
+            List<Object> tokens = new ArrayList<>(args.size());
             for (int i = 0; i < args.size(); i++) {
-                String arg = procStringNoTag(args.get(i));
+                String arg = tokenText(args.get(i));
                 if (arg.equals("(") || arg.equals("!(")) {
-                    List subargs = new ArrayList(args.size());
                     int count = 0;
-                    boolean found = false;
+                    int end = -1;
                     for (int x = i + 1; x < args.size(); x++) {
-                        String xarg = procStringNoTag(args.get(x));
+                        String xarg = tokenText(args.get(x));
                         if (xarg.equals("(") || xarg.equals("!(")) {
                             count++;
-                            subargs.add(xarg);
-                            if (CoreConfiguration.debugVerbose) {
-                                Debug.log("Open paren");
-                            }
                         }
                         else if (xarg.equals(")")) {
-                            if (CoreConfiguration.debugVerbose) {
-                                Debug.log("Close paren");
-                            }
                             count--;
                             if (count == -1) {
-                                if (CoreConfiguration.debugVerbose) {
-                                    Debug.log("Crunch");
-                                }
-                                ArgComparer comp = new ArgComparer().construct(subargs, scriptEntry);
-                                comp.flip = arg.startsWith("!");
-                                for (int c = 0; c < (x - i) + 1; c++) {
-                                    args.remove(i);
-                                }
-                                args.add(i, comp);
-                                found = true;
-                                if (CoreConfiguration.debugVerbose) {
-                                    Debug.log("Shrunk to " + args);
-                                }
+                                end = x;
                                 break;
                             }
-                            else {
-                                subargs.add(")");
-                            }
-                        }
-                        else {
-                            subargs.add(args.get(x));
                         }
                     }
-                    if (!found) {
+                    if (end == -1) {
                         if (CoreConfiguration.debugVerbose) {
-                            Debug.log("Returning false: strange(unfound) ()");
+                            Debug.log("Compiled to false: strange(unfound) ()");
                         }
-                        return false;
+                        return new ConstantNode(false);
                     }
+                    tokens.add(new GroupNode(compileNode(new ArrayList<>(args.subList(i + 1, end)), context), arg.startsWith("!")));
+                    i = end;
                 }
                 else if (arg.equals(")")) {
                     if (CoreConfiguration.debugVerbose) {
-                        Debug.log("Returning false: strange(stray) ()");
+                        Debug.log("Compiled to false: strange(stray) ()");
                     }
-                    return false;
+                    return new ConstantNode(false);
                 }
-            }
-            if (args.size() == 1) {
-                if (CoreConfiguration.debugVerbose) {
-                    Debug.log("Returning comparison for " + args.get(0));
+                else {
+                    tokens.add(args.get(i));
                 }
-                return tagbool(0, true);
             }
-            for (int i = 0; i < args.size(); i++) {
-                String arg = procStringNoTag(args.get(i));
-                String argLow = CoreUtilities.toLowerCase(arg);
+            if (tokens.size() == 1) {
+                return compileBool(tokens.get(0), true, context);
+            }
+            for (int i = 0; i < tokens.size(); i++) {
+                String argLow = CoreUtilities.toLowerCase(tokenText(tokens.get(i)));
                 if (argLow.equals("||") || argLow.equals("or")) {
-                    List beforeargs = new ArrayList(i);
-                    for (int x = 0; x < i; x++) {
-                        beforeargs.add(args.get(x));
-                    }
-                    boolean before = new ArgComparer().compare(beforeargs, scriptEntry);
-                    if (before) {
-                        if (CoreConfiguration.debugVerbose) {
-                            Debug.log("Returning true because true || irrel");
-                        }
-                        return true;
-                    }
-                    List afterargs = new ArrayList(args.size() - (i + 1));
-                    for (int x = i + 1; x < args.size(); x++) {
-                        afterargs.add(args.get(x));
-                    }
-                    boolean comp = new ArgComparer().compare(afterargs, scriptEntry);
-                    if (CoreConfiguration.debugVerbose) {
-                        Debug.log("Returning || comparison: " + comp);
-                    }
-                    return comp;
+                    return new OrNode(compileNode(new ArrayList<>(tokens.subList(0, i)), context), compileNode(new ArrayList<>(tokens.subList(i + 1, tokens.size())), context));
                 }
                 else if (argLow.equals("&&") || argLow.equals("and")) {
-                    List beforeargs = new ArrayList(i);
-                    for (int x = 0; x < i; x++) {
-                        beforeargs.add(args.get(x));
-                    }
-                    boolean before = new ArgComparer().compare(beforeargs, scriptEntry);
-                    if (!before) {
-                        if (CoreConfiguration.debugVerbose) {
-                            Debug.log("Returning false because false && irrel");
-                        }
-                        return false;
-                    }
-                    List afterargs = new ArrayList(args.size() - (i + 1));
-                    for (int x = i + 1; x < args.size(); x++) {
-                        afterargs.add(args.get(x));
-                    }
-                    boolean comp = new ArgComparer().compare(afterargs, scriptEntry);
-                    if (CoreConfiguration.debugVerbose) {
-                        Debug.log("Returning && comparison: " + comp);
-                    }
-                    return comp;
-                }
-            }
-            if (args.size() == 1) {
-                if (CoreConfiguration.debugVerbose) {
-                    Debug.log("Returning comparison for " + args.get(0));
+                    return new AndNode(compileNode(new ArrayList<>(tokens.subList(0, i)), context), compileNode(new ArrayList<>(tokens.subList(i + 1, tokens.size())), context));
                 }
-                return tagbool(0, true);
             }
-            if (args.size() == 2) {
-                if (CoreUtilities.toLowerCase(procStringNoTag(args.get(0))).equals("not")) {
-                    if (CoreConfiguration.debugVerbose) {
-                        Debug.log("Returning negative comparison for " + args.get(0));
-                    }
-                    return !tagbool(1, false);
+            if (tokens.size() == 2) {
+                if (CoreUtilities.toLowerCase(tokenText(tokens.get(0))).equals("not")) {
+                    return new NotNode(compileBool(tokens.get(1), false, context));
                 }
                 if (CoreConfiguration.debugVerbose) {
-                    Debug.log("Returning false because two args only (non-processable)");
+                    Debug.log("Compiled to false because two args only (non-processable)");
                 }
-                return false;
+                return new ConstantNode(false);
             }
             String operatorArg;
             boolean negative = false;
-            if (args.size() == 4 && CoreUtilities.toLowerCase(procStringNoTag(args.get(1))).equals("not")) {
-                operatorArg = procStringNoTag(args.get(2));
+            if (tokens.size() == 4 && CoreUtilities.toLowerCase(tokenText(tokens.get(1))).equals("not")) {
+                operatorArg = tokenText(tokens.get(2));
                 negative = true;
             }
-            else if (args.size() == 3) {
-                operatorArg = procStringNoTag(args.get(1));
+            else if (tokens.size() == 3) {
+                operatorArg = tokenText(tokens.get(1));
                 if (operatorArg.startsWith("!")) {
                     operatorArg = operatorArg.substring(1);
                     negative = true;
                 }
             }
             else {
-                Debug.echoError(scriptEntry, "If command syntax invalid - too many arguments? Found " + args.size() + " args: " + args);
-                return false;
-            }
-            try {
-                Comparable.Operator operator = Comparable.getOperatorFor(operatorArg);
-                if (operator == null) {
-                    Debug.echoError(scriptEntry, "If command syntax invalid - invalid operator '" + operatorArg + "'");
-                    return false;
+                List<String> debugArgs = new ArrayList<>(tokens.size());
+                for (Object token : tokens) {
+                    debugArgs.add(tokenText(token));
                 }
-                ObjectTag first = tagme(0, false).value;
-                ObjectTag second = tagme(args.size() - 1, false).value;
-                boolean outcome = Comparable.compare(first, second, operator, negative, scriptEntry.context);
-                if (scriptEntry.dbCallShouldDebug()) {
-                    Debug.echoDebug(scriptEntry, "Comparing if " + first + (negative ? " not " : " ") + operator.name() + " " + second + " ... " + outcome);
-                }
-                return outcome;
+                return new ErrorNode("If command syntax invalid - too many arguments? Found " + tokens.size() + " args: " + debugArgs);
             }
-            catch (Throwable ex) {
-                Debug.echoError(scriptEntry, "If command syntax invalid - possibly wrong number of arguments (check for stray spaces)? exception: " + ex.getClass().getName() + ": " + ex.getMessage());
-                if (CoreConfiguration.debugVerbose) {
-                    Debug.echoError("Was comparing " + operatorArg + " with " + args.get(0) + " and " + args.get(2));
-                    Debug.echoError(ex);
-                }
-                return false;
+            Comparable.Operator operator = Comparable.getOperatorFor(operatorArg);
+            if (operator == null) {
+                return new ErrorNode("If command syntax invalid - invalid operator '" + operatorArg + "'");
             }
+            return new CompareNode(compileBool(tokens.get(0), false, context), compileBool(tokens.get(tokens.size() - 1), false, context), operator, negative,
+                    operatorArg + " with " + tokenText(tokens.get(0)) + " and " + tokenText(tokens.get(tokens.size() - 1)));
         }
     }
 }
@@ -72,6 +72,7 @@ public class RepeatCommand extends BracedCommand {
         public int target;
         public String valueName;
         public ObjectTag originalValue;
+        public List<ScriptEntry> body;
 
         public void reapplyAtEnd(ScriptQueue queue) {
             queue.addDefinition(valueName, originalValue);
@@ -160,6 +161,10 @@ public class RepeatCommand extends BracedCommand {
                         Debug.echoDebug(scriptEntry, Debug.DebugElement.Header, "Repeat loop " + data.index);
                     }
                     queue.addDefinition(data.valueName, String.valueOf(data.index));
+                    if (data.body != null) {
+                        queue.injectEntriesAtStart(BracedCommand.resetLoopBody(data.body));
+                        return;
+                    }
                     List<ScriptEntry> bracedCommands = BracedCommand.getBracedCommandsDirect(scriptEntry.getOwner(), scriptEntry);
                     ScriptEntry callbackEntry = scriptEntry.clone();
                     callbackEntry.copyFrom(scriptEntry);
@@ -213,6 +218,9 @@ public class RepeatCommand extends BracedCommand {
             for (ScriptEntry cmd : bracedCommandsList) {
                 cmd.setInstant(true);
             }
+            if (canReuseLoopBody(bracedCommandsList)) {
+                datum.body = bracedCommandsList;
+            }
             scriptEntry.setInstant(true);
             queue.injectEntriesAtStart(bracedCommandsList);
         }
@@ -17,10 +17,10 @@ import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.utilities.text.StringHolder;
 
 import java.io.File;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.function.Consumer;
 
 public class RunLaterCommand extends AbstractCommand {
@@ -271,35 +271,48 @@ public class RunLaterCommand extends AbstractCommand {
 
     public static void addNewRunnable(FutureRunData runData) {
         hasChanged = true;
-        long timeNow = System.currentTimeMillis();
-        if (runData.executeAt < timeNow + MS_PER_MINUTE * 2) {
-            nextMinuteFutureRuns.add(runData);
-        }
-        else if (runData.executeAt < timeNow + MS_PER_HOUR * 2) {
-            nextHourFutureRuns.add(runData);
-        }
-        else {
-            farFutureRuns.add(runData);
-        }
+        futureRuns.add(runData);
         if (runData.id != null) {
             trackedById.put(runData.id, runData);
         }
     }
 
-    public static List<FutureRunData> nextMinuteFutureRuns = new ArrayList<>();
-
-    public static List<FutureRunData> nextHourFutureRuns = new ArrayList<>();
+    /**
+     * Cancels the future run with the given (lowercase) ID, if any.
+     * Cancelled runs are left in the heap and skipped when due, unless enough accumulate to be worth purging.
+     */
+    public static FutureRunData cancel(String id) {
+        FutureRunData runData = trackedById.remove(id);
+        if (runData != null && !runData.cancelled) {
+            runData.cancelled = true;
+            hasChanged = true;
+            cancelledCount++;
+            if (cancelledCount > 1024 && cancelledCount > futureRuns.size() / 2) {
+                futureRuns.removeIf(data -> data.cancelled);
+                cancelledCount = 0;
+            }
+        }
+        return runData;
+    }
 
-    public static List<FutureRunData> farFutureRuns = new ArrayList<>();
+    /**
+     * All future runs, as a min-heap ordered by execution time, so that each tick only needs to look at runs that are actually due.
+     */
+    public static PriorityQueue<FutureRunData> futureRuns = new PriorityQueue<>(Comparator.comparingLong(data -> data.executeAt));
 
     public static HashMap<String, FutureRunData> trackedById = new HashMap<>();
 
-    public static long timeMinuteReorg = 0, timeHourReorg = 0, timeLastSave = 0;
+    /**
+     * Number of cancelled runs still present in 'futureRuns'.
+     */
+    public static int cancelledCount = 0;
+
+    public static long timeLastSave = 0;
 
     public static final long MS_PER_MINUTE = 60 * 1000, MS_PER_HOUR = 60 * MS_PER_MINUTE;
 
     public static boolean hasAny() {
-        return !nextMinuteFutureRuns.isEmpty() || !nextHourFutureRuns.isEmpty() || !farFutureRuns.isEmpty();
+        return !futureRuns.isEmpty();
     }
 
     public static String persistFilePath;
@@ -309,10 +322,9 @@ public class RunLaterCommand extends AbstractCommand {
     public static boolean hasChanged = false;
 
     public static void init(String path) {
-        nextMinuteFutureRuns.clear();
-        nextHourFutureRuns.clear();
-        farFutureRuns.clear();
+        futureRuns.clear();
         trackedById.clear();
+        cancelledCount = 0;
         persistFilePath = path;
         String stored = CoreUtilities.journallingLoadFile(path);
         if (stored != null) {
@@ -366,37 +378,18 @@ public class RunLaterCommand extends AbstractCommand {
             return;
         }
         long timeNow = System.currentTimeMillis();
-        for (int i = 0; i < nextMinuteFutureRuns.size(); i++) {
-            FutureRunData data = nextMinuteFutureRuns.get(i);
-            if (data.executeAt < timeNow) {
-                nextMinuteFutureRuns.remove(i--);
-                hasChanged = true;
-                data.run();
+        while (!futureRuns.isEmpty() && futureRuns.peek().executeAt < timeNow) {
+            FutureRunData data = futureRuns.poll();
+            hasChanged = true;
+            if (data.cancelled) {
+                cancelledCount--;
+                continue;
             }
+            data.run();
         }
-        if (timeNow > timeMinuteReorg + MS_PER_MINUTE) {
-            timeMinuteReorg = timeNow;
-            if (timeNow > timeHourReorg + MS_PER_HOUR) {
-                timeHourReorg = timeNow;
-                for (int i = 0; i < farFutureRuns.size(); i++) {
-                    FutureRunData data = farFutureRuns.get(i);
-                    if (data.executeAt < timeNow + (2 * MS_PER_HOUR)) {
-                        nextHourFutureRuns.add(data);
-                        farFutureRuns.remove(i--);
-                    }
-                }
-            }
-            for (int i = 0; i < nextHourFutureRuns.size(); i++) {
-                FutureRunData data = nextHourFutureRuns.get(i);
-                if (data.executeAt < timeNow + (2 * MS_PER_MINUTE)) {
-                    nextMinuteFutureRuns.add(data);
-                    nextHourFutureRuns.remove(i--);
-                }
-            }
-            if (timeNow > timeLastSave + (30 * MS_PER_MINUTE)) {
-                timeLastSave = timeNow;
-                saveToFile(true);
-            }
+        if (timeNow > timeLastSave + (30 * MS_PER_MINUTE)) {
+            timeLastSave = timeNow;
+            saveToFile(true);
         }
     }
 
@@ -406,19 +399,9 @@ public class RunLaterCommand extends AbstractCommand {
         }
         YamlConfiguration out = new YamlConfiguration();
         int id = 0;
-        for (FutureRunData runData : nextMinuteFutureRuns) {
-            if (!runData.cancelled) {
-                out.set("minute_" + (id++), runData.save());
-            }
-        }
-        for (FutureRunData runData : nextHourFutureRuns) {
-            if (!runData.cancelled) {
-                out.set("hour_" + (id++), runData.save());
-            }
-        }
-        for (FutureRunData runData : farFutureRuns) {
+        for (FutureRunData runData : futureRuns) {
             if (!runData.cancelled) {
-                out.set("future_" + (id++), runData.save());
+                out.set("run_" + (id++), runData.save());
             }
         }
         return out;
@@ -59,7 +59,12 @@ public class WaitUntilCommand extends AbstractCommand implements Holdable {
                                    @ArgUnparsed @ArgNoDebug @ArgRaw @ArgLinear @ArgName("if_comparisons") List<ScriptEntry.InternalArgument> comparisons,
                                    @ArgPrefixed @ArgName("rate") @ArgDefaultNull DurationTag rate,
                                    @ArgPrefixed @ArgName("max") @ArgDefaultNull DurationTag max) {
-        boolean run = new IfCommand.ArgComparer().compare(new ArrayList<>(comparisons), scriptEntry);
+        List<String> rawComparisons = new ArrayList<>(comparisons.size());
+        for (ScriptEntry.InternalArgument arg : comparisons) {
+            rawComparisons.add(arg.fullOriginalRawValue);
+        }
+        IfCommand.CompiledCondition condition = IfCommand.CompiledCondition.getFor(scriptEntry, 0, rawComparisons);
+        boolean run = condition.evaluate(scriptEntry);
         if (run) {
             Debug.echoDebug(scriptEntry, "WaitUntil first check already <A>true<W>, not waiting.");
             scriptEntry.setFinished(true);
@@ -93,7 +98,7 @@ public class WaitUntilCommand extends AbstractCommand implements Holdable {
                     scriptEntry.setFinished(true);
                     schedulable.cancel();
                 }
-                if (new IfCommand.ArgComparer().compare(new ArrayList<>(comparisons), scriptEntry)) {
+                if (condition.evaluate(scriptEntry)) {
                     Debug.echoDebug(scriptEntry, "WaitUntil completed after <A>" + counter + "<W> re-checks.");
                     scriptEntry.setFinished(true);
                     schedulable.cancel();
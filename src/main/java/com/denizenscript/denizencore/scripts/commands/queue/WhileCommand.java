@@ -50,10 +50,11 @@ public class WhileCommand extends BracedCommand {
 
     private static class WhileData {
         public int index;
-        public List<String> value;
+        public IfCommand.CompiledCondition condition;
         public long LastChecked;
         public int instaTicks;
         public ObjectTag originalIndexValue;
+        public List<ScriptEntry> body;
 
         public void reapplyAtEnd(ScriptQueue queue) {
             queue.addDefinition("loop_index", originalIndexValue);
@@ -168,12 +169,16 @@ public class WhileCommand extends BracedCommand {
                     data.instaTicks = 0;
                 }
                 data.LastChecked = CoreUtilities.monotonicMillis();
-                boolean run = new IfCommand.ArgComparer().compare(new ArrayList(data.value), scriptEntry);
+                boolean run = data.condition.evaluate(scriptEntry);
                 if (run) {
                     if (scriptEntry.dbCallShouldDebug()) {
                         Debug.echoDebug(scriptEntry, Debug.DebugElement.Header, "While loop " + data.index);
                     }
                     queue.addDefinition("loop_index", String.valueOf(data.index));
+                    if (data.body != null) {
+                        queue.injectEntriesAtStart(BracedCommand.resetLoopBody(data.body));
+                        return;
+                    }
                     List<ScriptEntry> bracedCommands = BracedCommand.getBracedCommandsDirect(scriptEntry.getOwner(), scriptEntry);
                     ScriptEntry callbackEntry = scriptEntry.clone();
                     callbackEntry.copyFrom(scriptEntry);
@@ -197,7 +202,8 @@ public class WhileCommand extends BracedCommand {
         }
         else {
             List<String> comparisons = (List<String>) scriptEntry.getObject("comparisons");
-            boolean run = new IfCommand.ArgComparer().compare(comparisons, scriptEntry);
+            IfCommand.CompiledCondition condition = IfCommand.CompiledCondition.getFor(scriptEntry, 0, comparisons);
+            boolean run = condition.evaluate(scriptEntry);
             if (scriptEntry.dbCallShouldDebug()) {
                 Debug.report(scriptEntry, getName(), db("run_first_loop", run));
             }
@@ -206,7 +212,7 @@ public class WhileCommand extends BracedCommand {
             }
             WhileData datum = new WhileData();
             datum.index = 1;
-            datum.value = comparisons;
+            datum.condition = condition;
             datum.LastChecked = CoreUtilities.monotonicMillis();
             datum.instaTicks = 1;
             scriptEntry.setData(datum);
@@ -225,6 +231,9 @@ public class WhileCommand extends BracedCommand {
             for (int i = 0; i < bracedCommandsList.size(); i++) {
                 bracedCommandsList.get(i).setInstant(true);
             }
+            if (canReuseLoopBody(bracedCommandsList)) {
+                datum.body = bracedCommandsList;
+            }
             scriptEntry.setInstant(true);
             queue.injectEntriesAtStart(bracedCommandsList);
         }
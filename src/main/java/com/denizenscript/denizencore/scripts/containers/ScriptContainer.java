@@ -202,6 +202,18 @@ public class ScriptContainer implements Debuggable {
         return new ScriptTag(this);
     }
 
+    private ScriptTag cachedScriptTag;
+
+    /**
+     * Gets a shared ScriptTag object that represents this container, for internal read-only usages (such as tag contexts) that would otherwise create a new one on every call.
+     */
+    public ScriptTag getCachedScriptTag() {
+        if (cachedScriptTag == null) {
+            cachedScriptTag = new ScriptTag(this);
+        }
+        return cachedScriptTag;
+    }
+
     // <--[language]
     // @name Script Type
     // @group Script Container System
@@ -328,13 +340,11 @@ public class ScriptContainer implements Debuggable {
         if (set == null) {
             return null;
         }
-        set = set.duplicate();
+        List<ScriptEntry> entries = new ArrayList<>(set.entries.size());
         for (ScriptEntry entry : set.entries) {
-            entry.entryData = data.clone();
-            entry.updateContext();
-            entry.entryData.scriptEntry = entry;
+            entries.add(entry.cloneWithData(data));
         }
-        return set.entries;
+        return entries;
     }
 
     public List<ScriptEntry> getEntries(ScriptEntryData data, String path) {
@@ -9,6 +9,7 @@ import com.denizenscript.denizencore.scripts.queues.core.TimedQueue;
 import com.denizenscript.denizencore.utilities.*;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.utilities.debugging.Debuggable;
+import com.denizenscript.denizencore.utilities.debugging.LatencyHistogram;
 import com.denizenscript.denizencore.utilities.scheduling.OneTimeSchedulable;
 import com.denizenscript.denizencore.utilities.scheduling.Schedulable;
 
@@ -41,6 +42,32 @@ public abstract class ScriptQueue implements Debuggable, DefinitionProvider {
                 + allQueues.size() + ",\n" + String.join("", statsSet.stream().map(Map.Entry::getValue).collect(Collectors.joining()));
     }
 
+    /**
+     * Returns script event paths that have ran or been checked, sorted by 99th percentile run time (slowest first).
+     */
+    public static List<ScriptEvent.ScriptPath> getPathsByLatency() {
+        List<ScriptEvent.ScriptPath> paths = ScriptEvent.getAllPaths();
+        paths.removeIf(path -> path.stats_latency.count == 0 && path.stats_rejections == 0);
+        paths.sort(Comparator.comparingLong((ScriptEvent.ScriptPath path) -> path.stats_latency.getPercentile(99)).reversed());
+        return paths;
+    }
+
+    public static ListTag getPathStatsRawData() {
+        return new ListTag(getPathsByLatency(), path -> {
+            LatencyHistogram latency = path.stats_latency;
+            MapTag map = new MapTag();
+            map.putObject("script", new ElementTag(path.container.getName(), true));
+            map.putObject("event", new ElementTag((path.fireAfter ? "after " : "on ") + path.event, true));
+            map.putObject("fires", new ElementTag(latency.count));
+            map.putObject("rejections", new ElementTag(path.stats_rejections));
+            map.putObject("total_time", new DurationTag(latency.total / 1_000_000_000.0));
+            map.putObject("p50", new DurationTag(latency.getPercentile(50) / 1_000_000_000.0));
+            map.putObject("p99", new DurationTag(latency.getPercentile(99) / 1_000_000_000.0));
+            map.putObject("max", new DurationTag(latency.max / 1_000_000_000.0));
+            return map;
+        });
+    }
+
     public static ListTag getStatsRawData() {
         return new ListTag(ScriptEvent.events, event -> event.eventData.stats_fires > 0, event -> {
             MapTag map = new MapTag();
@@ -123,10 +150,42 @@ public abstract class ScriptQueue implements Debuggable, DefinitionProvider {
 
     public long numericId;
 
+    /**
+     * If true, this queue has a simple numeric ID, and is only added to the global queue list if something requests a QueueTag for it.
+     * Used for short-lived instant queues (see 'eventLightweightQueues').
+     */
+    public boolean lightweight = false;
+
+    /**
+     * Whether this queue is currently in the global queue list.
+     */
+    public boolean isRegistered = false;
+
     protected ScriptQueue(String id) {
+        this(id, false);
+    }
+
+    protected ScriptQueue(String id, boolean lightweight) {
         numericId = total_queues++;
         this.id = id;
-        generateId(id, numericId, 0);
+        this.lightweight = lightweight;
+        if (lightweight) {
+            this.id = id + "_" + numericId;
+            debugId = "<LG>" + id + "_<GR>" + numericId;
+        }
+        else {
+            generateId(id, numericId, 0);
+        }
+    }
+
+    /**
+     * Adds this queue to the global queue list if it's running and isn't already there (for lightweight queues).
+     */
+    public final void ensureRegistered() {
+        if (!isRegistered && is_started && !isStopped) {
+            allQueues.put(id, this);
+            isRegistered = true;
+        }
     }
 
     public final void setContextSource(ContextSource source) {
@@ -307,8 +366,10 @@ public abstract class ScriptQueue implements Debuggable, DefinitionProvider {
                 Debug.echoError(ex);
             }
         }
-        allQueues.put(id, this);
         is_started = true;
+        if (!lightweight) {
+            ensureRegistered();
+        }
         long delay = delay_time - DenizenCore.serverTimeMillis;
         boolean is_delayed = delay > 0;
         if (doBasicConfig) {
@@ -363,7 +424,10 @@ public abstract class ScriptQueue implements Debuggable, DefinitionProvider {
 
     private void stopSilent() {
         is_stopping = true;
-        allQueues.remove(id);
+        if (isRegistered) {
+            allQueues.remove(id);
+            isRegistered = false;
+        }
         is_started = false;
         isStopped = true;
     }
@@ -9,6 +9,10 @@ public class InstantQueue extends ScriptQueue {
         super(id);
     }
 
+    public InstantQueue(String id, boolean lightweight) {
+        super(id, lightweight);
+    }
+
     @Override
     public void onStart() {
         while (is_started) {
@@ -6,6 +6,7 @@ import com.denizenscript.denizencore.objects.core.ElementTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.tags.core.*;
 import com.denizenscript.denizencore.utilities.AsciiMatcher;
+import com.denizenscript.denizencore.utilities.BoundedCache;
 import com.denizenscript.denizencore.utilities.CoreConfiguration;
 import com.denizenscript.denizencore.utilities.CoreUtilities;
 import com.denizenscript.denizencore.utilities.codegen.TagCodeGenerator;
@@ -282,7 +283,16 @@ public class TagManager {
 
     public static Pattern OBJECTTAG_CONFUSION_PATTERN = Pattern.compile("<\\w+tag[\\[.>].*", Pattern.CASE_INSENSITIVE);
 
-    public static HashMap<String, ParseableTag> preCalced = new HashMap<>();
+    /**
+     * Cache of pre-parsed tag text, limited to 'tagParseCacheSize' entries.
+     */
+    public static final BoundedCache<String, ParseableTag> preCalcedCache = new BoundedCache<>(() -> CoreConfiguration.tagParseCacheSize);
+
+    /**
+     * Direct view of the backing map of 'preCalcedCache', kept for compatibility. Any access must synchronize on 'preCalcedCache'.
+     */
+    @Deprecated
+    public static HashMap<String, ParseableTag> preCalced = preCalcedCache.map;
 
     public static ParseableTag DEFAULT_PARSEABLE_EMPTY = new ParseableTag("");
 
@@ -348,12 +358,12 @@ public class TagManager {
         if (arg == null) {
             return null;
         }
-        ParseableTag preParsed = preCalced.get(arg);
+        ParseableTag preParsed = preCalcedCache.get(arg);
         if (preParsed != null) {
             return preParsed;
         }
         ParseableTag result = parseTextToTagInternal(arg, context, false);
-        preCalced.put(arg, result);
+        preCalcedCache.put(arg, result);
         return result;
     }
 
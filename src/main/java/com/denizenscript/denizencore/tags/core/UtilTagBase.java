@@ -19,6 +19,7 @@ import com.denizenscript.denizencore.tags.TagManager;
 import com.denizenscript.denizencore.utilities.*;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
 import com.denizenscript.denizencore.utilities.debugging.DebugInternals;
+import com.denizenscript.denizencore.utilities.scheduling.TaskScheduler;
 
 import java.io.File;
 import java.nio.charset.Charset;
@@ -50,6 +51,17 @@ public class UtilTagBase extends PseudoObjectTagBase<UtilTagBase> {
         AdjustCommand.specialAdjustables.put("system", mechanism -> tagProcessor.processMechanism(instance, mechanism));
     }
 
+    public static MapTag getCacheStats(BoundedCache<?, ?> cache) {
+        MapTag result = new MapTag();
+        synchronized (cache) {
+            result.putObject("size", new ElementTag(cache.map.size()));
+            result.putObject("hits", new ElementTag(cache.hits));
+            result.putObject("misses", new ElementTag(cache.misses));
+            result.putObject("evictions", new ElementTag(cache.evictions));
+        }
+        return result;
+    }
+
     @Override
     public void register() {
         tagProcessor.registerTag(ElementTag.class, "random", (attribute, object) -> {
@@ -608,6 +620,74 @@ public class UtilTagBase extends PseudoObjectTagBase<UtilTagBase> {
             return ScriptQueue.getStatsRawData();
         });
 
+        // <--[tag]
+        // @attribute <util.event_path_stats>
+        // @returns ListTag(MapTag)
+        // @description
+        // Returns per-path statistics for script events, as a ListTag of MapTags, sorted by 99th percentile run time (slowest first).
+        // Only includes paths that have ran or been checked since the last reload or <@link mechanism system.reset_event_stats>.
+        // Keys are:
+        // "script": the name of the script container.
+        // "event": the event line, like "on custom event id:my_event".
+        // "fires": how many times the path ran.
+        // "rejections": how many times a fired event was checked against the path but didn't match it.
+        // "total_time": the total time spent running the path, as a DurationTag.
+        // "p50", "p99": the median and 99th percentile time of a single run, as DurationTags (approximate, within about 12%).
+        // "max": the longest single run, as a DurationTag.
+        // Run times only include the instant part of a run (up until the first 'wait' or similar).
+        // -->
+        tagProcessor.registerTag(ListTag.class, "event_path_stats", (attribute, object) -> {
+            return ScriptQueue.getPathStatsRawData();
+        });
+
+        // <--[tag]
+        // @attribute <util.main_thread_task_stats>
+        // @returns MapTag
+        // @description
+        // Returns stats about callbacks sent to the main thread from other threads (such as results of SQL, Redis, Mongo, or webget actions).
+        // Keys are:
+        // "queued": the number of callbacks currently waiting.
+        // "ran_last_tick": the number of callbacks ran in the most recent tick.
+        // "max_wait_last_tick": the longest time a callback ran in the most recent tick spent waiting, as a DurationTag.
+        // "average_wait": the average time callbacks have spent waiting this server session, as a DurationTag.
+        // "total_ran": the number of callbacks ran this server session.
+        // "ticks_over_budget": the number of ticks that ran out of time budget and had to leave callbacks waiting for the next tick.
+        // A "queued" value that keeps growing indicates the server is receiving callbacks faster than the time budget allows processing them.
+        // -->
+        tagProcessor.registerTag(MapTag.class, "main_thread_task_stats", (attribute, object) -> {
+            TaskScheduler scheduler = DenizenCore.scheduler;
+            MapTag result = new MapTag();
+            result.putObject("queued", new ElementTag(scheduler.mainThreadTasksQueued.get()));
+            result.putObject("ran_last_tick", new ElementTag(scheduler.mainThreadTasksRanLastTick));
+            result.putObject("max_wait_last_tick", new DurationTag(scheduler.mainThreadTaskMaxWaitLastTick / 1_000_000_000.0));
+            result.putObject("average_wait", new DurationTag(scheduler.mainThreadTasksRan == 0 ? 0 : scheduler.mainThreadTaskTotalWait / 1_000_000_000.0 / scheduler.mainThreadTasksRan));
+            result.putObject("total_ran", new ElementTag(scheduler.mainThreadTasksRan));
+            result.putObject("ticks_over_budget", new ElementTag(scheduler.mainThreadTaskTicksOverBudget));
+            return result;
+        });
+
+        // <--[tag]
+        // @attribute <util.tag_parse_cache_stats>
+        // @returns MapTag
+        // @description
+        // Returns stats about the cache of pre-parsed tag text (used for text parsed at runtime, such as by the 'parsed' tag).
+        // Keys are "size", "hits", "misses", and "evictions".
+        // Evictions happen when the cache grows past its configured size limit, and drop the least recently used entries.
+        // -->
+        tagProcessor.registerTag(MapTag.class, "tag_parse_cache_stats", (attribute, object) -> {
+            return getCacheStats(TagManager.preCalcedCache);
+        });
+
+        // <--[tag]
+        // @attribute <util.matcher_cache_stats>
+        // @returns MapTag
+        // @description
+        // Returns stats about the cache of advanced matchers (see <@link language Advanced Object Matching>), in the same format as <@link tag util.tag_parse_cache_stats>.
+        // -->
+        tagProcessor.registerTag(MapTag.class, "matcher_cache_stats", (attribute, object) -> {
+            return getCacheStats(ScriptEvent.knownMatchersCache);
+        });
+
         // <--[tag]
         // @attribute <util.default_encoding>
         // @returns ElementTag
@@ -1037,10 +1117,7 @@ public class UtilTagBase extends PseudoObjectTagBase<UtilTagBase> {
         // Use <@link tag util.runlater_ids> to check whether there is already a scheduled task with the given ID.
         // -->
         tagProcessor.registerMechanism("cancel_runlater", false, ElementTag.class, (object, mechanism, input) -> {
-            RunLaterCommand.FutureRunData runner = RunLaterCommand.trackedById.remove(input.asLowerString());
-            if (runner != null) {
-                runner.cancelled = true;
-            }
+            RunLaterCommand.cancel(input.asLowerString());
         });
 
         // <--[mechanism]
@@ -1052,6 +1129,7 @@ public class UtilTagBase extends PseudoObjectTagBase<UtilTagBase> {
         // @tags
         // <util.event_stats>
         // <util.event_stats_data>
+        // <util.event_path_stats>
         // -->
         tagProcessor.registerMechanism("reset_event_stats", false, (object, mechanism) -> {
             for (ScriptEvent scriptEvent : ScriptEvent.events) {
@@ -1059,6 +1137,10 @@ public class UtilTagBase extends PseudoObjectTagBase<UtilTagBase> {
                 scriptEvent.eventData.stats_scriptFires = 0;
                 scriptEvent.eventData.stats_nanoTimes = 0;
             }
+            for (ScriptEvent.ScriptPath path : ScriptEvent.getAllPaths()) {
+                path.stats_latency.reset();
+                path.stats_rejections = 0;
+            }
         });
 
         // <--[mechanism]
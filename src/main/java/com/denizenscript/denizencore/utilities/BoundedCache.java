@@ -0,0 +1,61 @@
+package com.denizenscript.denizencore.utilities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * A thread-safe key-value cache with least-recently-used eviction, that tracks hit/miss/eviction counts.
+ * The size limit is read from a supplier on each insertion, so configuration changes apply live (a limit of 0 or less means unlimited).
+ */
+public class BoundedCache<K, V> {
+
+    public final IntSupplier limitGetter;
+
+    public final LinkedHashMap<K, V> map = new LinkedHashMap<K, V>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            int limit = limitGetter.getAsInt();
+            if (limit > 0 && size() > limit) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public long hits, misses, evictions;
+
+    public BoundedCache(IntSupplier limitGetter) {
+        this.limitGetter = limitGetter;
+    }
+
+    public synchronized V get(K key) {
+        V result = map.get(key);
+        if (result == null) {
+            misses++;
+        }
+        else {
+            hits++;
+        }
+        return result;
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, value);
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+}
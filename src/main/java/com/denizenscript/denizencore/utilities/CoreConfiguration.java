@@ -26,16 +26,36 @@ public class CoreConfiguration {
 
     public static int tagTimeout = 0;
 
+    public static int tagParseCacheSize = 100000, matcherCacheSize = 50000;
+
+    public static boolean eventDispatchIndex = true, eventLazyMatchContext = false, eventLightweightQueues = false;
+
     public static boolean defaultDebugMode = true;
 
     public static int whileMaxLoops = 10000;
 
+    public static boolean loopReuseEntries = false;
+
     public static double scriptQueueSpeed = 0;
 
+    public static long schedulerTickBudgetMillis = 0, mainThreadTaskBudgetMillis = 0;
+
+    public static boolean asyncVirtualThreads = false;
+
+    public static int asyncWebLimit = 0, asyncSQLLimit = 0, asyncMongoLimit = 0, asyncRedisLimit = 0, asyncFileLimit = 0;
+
     public static volatile CharsetDecoder scriptEncoding;
 
+    public static volatile boolean scriptReloadIncremental = false, scriptPersistentCache = false;
+
     public static boolean skipAllFlagCleanings = false;
 
+    public static boolean flagJournalEnabled = false;
+
+    public static int flagJournalCompactThreshold = 10000;
+
+    public static boolean flagLazyLoad = false;
+
     public static String webserverRoot = "webroot/", filePathLimit = "data/";
 
     public static boolean verifyThreadMatches;
@@ -748,7 +748,11 @@ public class CoreUtilities {
         return new String(output);
     }
 
-    public static void journallingFileSave(String filePath, String contents) {
+    /**
+     * Saves the contents to a file via a temporary file, so that a crash can't leave a partially written file in place.
+     * Returns false (after logging an error) if the file could not be saved.
+     */
+    public static boolean journallingFileSave(String filePath, String contents) {
         File saveToFile = new File(filePath + "~1");
         try {
             saveToFile.getParentFile().mkdirs();
@@ -766,16 +770,95 @@ public class CoreUtilities {
             File bakFile = new File(filePath + "~2");
             File realFile = new File(filePath);
             if (realFile.exists()) {
-                realFile.renameTo(bakFile);
+                if (bakFile.exists()) {
+                    bakFile.delete();
+                }
+                if (!realFile.renameTo(bakFile)) {
+                    Debug.echoError("Failed to save data to path '" + filePath + "': the existing file could not be moved aside (is it open or mapped elsewhere?). New data remains at '" + saveToFile.getPath() + "'.");
+                    return false;
+                }
+            }
+            if (!saveToFile.renameTo(realFile)) {
+                Debug.echoError("Failed to save data to path '" + filePath + "': the new file could not be moved into place. New data remains at '" + saveToFile.getPath() + "'.");
+                if (bakFile.exists() && !realFile.exists()) {
+                    bakFile.renameTo(realFile);
+                }
+                return false;
             }
-            saveToFile.renameTo(realFile);
             if (bakFile.exists()) {
                 bakFile.delete();
             }
+            return true;
         }
         catch (Throwable ex) {
             Debug.echoError("Failed to save data to path '" + filePath + "'");
             Debug.echoError(ex);
+            return false;
+        }
+    }
+
+    /**
+     * Appends text to the end of a file, creating it if needed.
+     * Unlike journallingFileSave, this does not rewrite the file, so a crash can leave a partially written final line.
+     * Readers must call 'truncateToLastLine' before loading, so that the next append doesn't continue the partial line.
+     */
+    public static void appendToFile(String filePath, String contents) {
+        File file = new File(filePath);
+        try {
+            file.getParentFile().mkdirs();
+            Charset charset = CoreConfiguration.scriptEncoding == null ? null : CoreConfiguration.scriptEncoding.charset();
+            FileOutputStream fiout = new FileOutputStream(file, true);
+            OutputStreamWriter writer;
+            if (charset == null) {
+                writer = new OutputStreamWriter(fiout);
+            }
+            else {
+                writer = new OutputStreamWriter(fiout, charset);
+            }
+            writer.write(contents);
+            writer.close();
+        }
+        catch (Throwable ex) {
+            Debug.echoError("Failed to append data to path '" + filePath + "'");
+            Debug.echoError(ex);
+        }
+    }
+
+    /**
+     * Truncates a file back to just after its last newline, discarding a partially written final line (eg from a crash during 'appendToFile').
+     * The file's encoding must be ASCII-compatible. Returns the new length, or -1 if the file is missing or couldn't be truncated.
+     */
+    public static long truncateToLastLine(String filePath) {
+        File file = new File(filePath);
+        if (!file.exists()) {
+            return -1;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long length = raf.length();
+            byte[] buffer = new byte[4096];
+            long end = length;
+            while (end > 0) {
+                int read = (int) Math.min(buffer.length, end);
+                raf.seek(end - read);
+                raf.readFully(buffer, 0, read);
+                for (int i = read - 1; i >= 0; i--) {
+                    if (buffer[i] == '\n') {
+                        long newLength = end - read + i + 1;
+                        if (newLength != length) {
+                            raf.setLength(newLength);
+                        }
+                        return newLength;
+                    }
+                }
+                end -= read;
+            }
+            raf.setLength(0);
+            return 0;
+        }
+        catch (Throwable ex) {
+            Debug.echoError("Failed to truncate partial data at path '" + filePath + "'");
+            Debug.echoError(ex);
+            return -1;
         }
     }
 
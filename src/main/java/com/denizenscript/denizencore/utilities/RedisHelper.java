@@ -10,6 +10,7 @@ import com.denizenscript.denizencore.objects.core.SecretTag;
 import com.denizenscript.denizencore.scripts.ScriptEntry;
 import com.denizenscript.denizencore.scripts.commands.AbstractCommand;
 import com.denizenscript.denizencore.utilities.debugging.Debug;
+import com.denizenscript.denizencore.utilities.scheduling.AsyncTaskRunner;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPubSub;
 import redis.clients.jedis.util.SafeEncoder;
@@ -68,7 +69,7 @@ public class RedisHelper {
     }
 
     public static void runChecked(Runnable r, ScriptEntry scriptEntry) {
-        DenizenCore.runAsync(() -> {
+        DenizenCore.runAsync(AsyncTaskRunner.Subsystem.REDIS, () -> {
             try {
                 r.run();
             }
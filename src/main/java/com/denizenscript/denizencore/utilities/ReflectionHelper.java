@@ -8,6 +8,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -332,6 +333,23 @@ public class ReflectionHelper {
         }
     }
 
+    /**
+     * Immediately unmaps a direct or memory-mapped buffer, rather than waiting for it to be garbage collected.
+     * The buffer must not be used again after this. Does nothing (beyond logging) if the JVM doesn't allow it.
+     */
+    public static void unmapBuffer(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        enableUnsafe();
+        try {
+            UNSAFE.invokeCleaner(buffer);
+        }
+        catch (Throwable ex) {
+            echoError(ex);
+        }
+    }
+
     private static void validateUnsafe() {
         if (!haveLoadedUnsafeMethods) {
             haveLoadedUnsafeMethods = true;
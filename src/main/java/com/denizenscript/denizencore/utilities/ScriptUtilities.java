@@ -129,10 +129,8 @@ public class ScriptUtilities {
         List<ScriptEntry> cleanedEntries = new ArrayList<>();
         InstantQueue queue = new InstantQueue(id);
         for (ScriptEntry entry : entries) {
-            ScriptEntry newEntry = entry.clone();
+            ScriptEntry newEntry = entry.cloneWithData(data);
             newEntry.queue = queue;
-            newEntry.entryData = data.clone();
-            newEntry.entryData.scriptEntry = newEntry;
             newEntry.updateContext();
             cleanedEntries.add(newEntry);
         }
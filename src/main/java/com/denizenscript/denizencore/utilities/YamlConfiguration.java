@@ -11,7 +11,11 @@ import org.yaml.snakeyaml.representer.Representer;
 import org.yaml.snakeyaml.resolver.Resolver;
 import org.yaml.snakeyaml.scanner.ScannerImpl;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -376,6 +380,132 @@ public class YamlConfiguration {
         return configuration;
     }
 
+    /**
+     * Returns a deep copy of this configuration, such that changes to the copy can't affect the original.
+     */
+    public YamlConfiguration duplicate() {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.contents = copyMap(contents);
+        return configuration;
+    }
+
+    public static Map<StringHolder, Object> copyMap(Map<StringHolder, Object> map) {
+        LinkedHashMap<StringHolder, Object> output = new LinkedHashMap<>(map.size());
+        for (Map.Entry<StringHolder, Object> entry : map.entrySet()) {
+            output.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return output;
+    }
+
+    public static Object copyValue(Object value) {
+        if (value instanceof Map) {
+            return copyMap((Map<StringHolder, Object>) value);
+        }
+        else if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> output = new ArrayList<>(list.size());
+            for (Object obj : list) {
+                output.add(copyValue(obj));
+            }
+            return output;
+        }
+        return value;
+    }
+
+    public static void writeBinaryString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readBinaryString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a value from a YAML content tree (maps with StringHolder keys, lists, and scalars) in a compact binary form, for caching.
+     * Scalars are stored as strings, which is all script files contain.
+     */
+    public static void writeBinaryValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+        }
+        else if (value instanceof Map) {
+            Map<StringHolder, Object> map = (Map<StringHolder, Object>) value;
+            out.writeByte(2);
+            out.writeInt(map.size());
+            for (Map.Entry<StringHolder, Object> entry : map.entrySet()) {
+                out.writeBoolean(entry.getKey() != null);
+                if (entry.getKey() != null) {
+                    writeBinaryString(out, entry.getKey().str);
+                }
+                writeBinaryValue(out, entry.getValue());
+            }
+        }
+        else if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            out.writeByte(3);
+            out.writeInt(list.size());
+            for (Object obj : list) {
+                writeBinaryValue(out, obj);
+            }
+        }
+        else {
+            out.writeByte(1);
+            writeBinaryString(out, value.toString());
+        }
+    }
+
+    public static Object readBinaryValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case 0:
+                return null;
+            case 1:
+                return readBinaryString(in);
+            case 2:
+                return readBinaryMap(in);
+            case 3: {
+                int size = in.readInt();
+                ArrayList<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readBinaryValue(in));
+                }
+                return list;
+            }
+            default:
+                throw new IOException("Invalid binary YAML value type " + type);
+        }
+    }
+
+    public static LinkedHashMap<StringHolder, Object> readBinaryMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        LinkedHashMap<StringHolder, Object> map = new LinkedHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            StringHolder key = in.readBoolean() ? new StringHolder(readBinaryString(in)) : null;
+            map.put(key, readBinaryValue(in));
+        }
+        return map;
+    }
+
+    /**
+     * Reads a full config as written by 'writeBinaryValue' of its contents map, or null if none was written.
+     */
+    public static YamlConfiguration readBinaryConfiguration(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == 0) {
+            return null;
+        }
+        if (type != 2) {
+            throw new IOException("Invalid binary YAML root type " + type);
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        config.contents = readBinaryMap(in);
+        return config;
+    }
+
     public boolean isDirty() {
         return dirty;
     }
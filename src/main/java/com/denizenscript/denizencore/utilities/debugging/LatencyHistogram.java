@@ -0,0 +1,73 @@
+package com.denizenscript.denizencore.utilities.debugging;
+
+/**
+ * A compact log-linear latency histogram (in the style of HdrHistogram), for recording nanosecond timings.
+ * Each power-of-two range is split into 'SUB_BUCKETS' linear buckets, so percentiles are accurate to within about 12%.
+ * The bucket array is only allocated on the first recorded value.
+ */
+public class LatencyHistogram {
+
+    public static final int SUB_BUCKET_BITS = 3, SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    public long[] buckets;
+
+    public long count, total, max;
+
+    public static int bucketFor(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> exponent) & (SUB_BUCKETS - 1);
+        return ((exponent + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * Returns the highest value that would go in the given bucket.
+     */
+    public static long bucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket >> SUB_BUCKET_BITS) - 1;
+        long base = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << exponent;
+        return base + (1L << exponent) - 1;
+    }
+
+    public void record(long value) {
+        if (buckets == null) {
+            buckets = new long[(64 - SUB_BUCKET_BITS) << SUB_BUCKET_BITS];
+        }
+        buckets[bucketFor(value)]++;
+        count++;
+        total += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Returns the value at the given percentile (0 to 100), or 0 if nothing has been recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public void reset() {
+        buckets = null;
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+}
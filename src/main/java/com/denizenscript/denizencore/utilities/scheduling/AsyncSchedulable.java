@@ -12,7 +12,7 @@ public class AsyncSchedulable extends Schedulable {
         this.schedulable = schedulable;
         final Runnable runnable = schedulable.run;
         this.schedulable.run = () -> {
-            executor.execute(runnable);
+            AsyncTaskRunner.getExecutor().execute(runnable);
         };
     }
 
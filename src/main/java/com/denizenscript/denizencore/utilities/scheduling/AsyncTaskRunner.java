@@ -0,0 +1,142 @@
+package com.denizenscript.denizencore.utilities.scheduling;
+
+import com.denizenscript.denizencore.utilities.CoreConfiguration;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+
+/**
+ * Backend for DenizenCore.runAsync.
+ * Runs tasks on either the shared cached thread pool, or (if 'asyncVirtualThreads' is enabled and the JVM is Java 21 or newer) on virtual threads.
+ * Each subsystem can optionally limit how many of its tasks may run at once.
+ */
+public class AsyncTaskRunner {
+
+    public enum Subsystem {
+        GENERAL(null),
+        WEB(() -> CoreConfiguration.asyncWebLimit),
+        SQL(() -> CoreConfiguration.asyncSQLLimit),
+        MONGO(() -> CoreConfiguration.asyncMongoLimit),
+        REDIS(() -> CoreConfiguration.asyncRedisLimit),
+        FILE(() -> CoreConfiguration.asyncFileLimit);
+
+        /**
+         * The limiter for this subsystem, or null if it can never be limited.
+         */
+        public final Limiter limiter;
+
+        Subsystem(IntSupplier limitGetter) {
+            this.limiter = limitGetter == null ? null : new Limiter(limitGetter);
+        }
+    }
+
+    /**
+     * Caps how many tasks of one subsystem may run at once. Tasks beyond the cap wait in a queue here rather than on a thread,
+     * so waiting tasks never hold a pooled thread. The limit is read fresh for every task, so config changes apply without replacing the limiter
+     * (lowering the limit just stops new tasks from starting until enough running ones finish). A limit of 0 or less means unlimited.
+     */
+    public static class Limiter {
+
+        public final IntSupplier limitGetter;
+
+        /**
+         * Tasks currently submitted to the executor, and tasks waiting for a free slot. Both guarded by 'this'.
+         */
+        public int running;
+
+        public final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+
+        public Limiter(IntSupplier limitGetter) {
+            this.limitGetter = limitGetter;
+        }
+
+        public void submit(Runnable run) {
+            synchronized (this) {
+                int limit = limitGetter.getAsInt();
+                if (limit > 0 && running >= limit) {
+                    waiting.add(run);
+                    return;
+                }
+                running++;
+            }
+            start(run);
+        }
+
+        public void start(Runnable run) {
+            try {
+                getExecutor().execute(() -> {
+                    try {
+                        run.run();
+                    }
+                    finally {
+                        finished();
+                    }
+                });
+            }
+            catch (Throwable ex) {
+                finished();
+                throw ex;
+            }
+        }
+
+        /**
+         * Called when a task ends, to hand its slot to the next waiting task (if the limit still allows it).
+         */
+        public void finished() {
+            Runnable next;
+            synchronized (this) {
+                int limit = limitGetter.getAsInt();
+                next = limit <= 0 || running <= limit ? waiting.poll() : null;
+                if (next == null) {
+                    running--;
+                }
+            }
+            if (next != null) {
+                start(next);
+            }
+        }
+    }
+
+    /**
+     * The virtual thread executor, if enabled and available.
+     */
+    public static volatile Executor virtualExecutor;
+
+    public static volatile boolean virtualThreadsFailed = false;
+
+    public static Executor getExecutor() {
+        if (!CoreConfiguration.asyncVirtualThreads || virtualThreadsFailed) {
+            return AsyncSchedulable.executor;
+        }
+        Executor executor = virtualExecutor;
+        if (executor == null) {
+            synchronized (AsyncTaskRunner.class) {
+                executor = virtualExecutor;
+                if (executor == null) {
+                    try {
+                        // Java 21+ only, so reflect to remain compatible with older runtimes
+                        executor = (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                        virtualExecutor = executor;
+                    }
+                    catch (Throwable ex) {
+                        virtualThreadsFailed = true;
+                        Debug.echoError("Virtual threads are enabled but unavailable (requires Java 21 or newer), falling back to standard threads.");
+                        return AsyncSchedulable.executor;
+                    }
+                }
+            }
+        }
+        return executor;
+    }
+
+    public static void run(Subsystem subsystem, Runnable run) {
+        if (subsystem.limiter == null) {
+            getExecutor().execute(run);
+            return;
+        }
+        subsystem.limiter.submit(run);
+    }
+}
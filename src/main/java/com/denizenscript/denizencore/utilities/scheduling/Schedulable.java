@@ -6,6 +6,11 @@ public abstract class Schedulable {
     public boolean cancelled;
     public float secondsLeft;
 
+    /**
+     * Used by TaskScheduler for schedulables it keeps in its deadline heap (in which case 'secondsLeft' is not counted down).
+     */
+    public long deadline, scheduleOrder;
+
     public void cancel() {
         cancelled = true;
     }
@@ -0,0 +1,207 @@
+package com.denizenscript.denizencore.utilities.scheduling;
+
+import com.denizenscript.denizencore.DenizenCore;
+import com.denizenscript.denizencore.utilities.CoreConfiguration;
+import com.denizenscript.denizencore.utilities.debugging.Debug;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Main-thread scheduler backing DenizenCore.schedule.
+ * Plain one-time and repeating schedulables are held in a heap ordered by deadline (in DenizenCore.serverTimeMillis), so they cost nothing until they're due.
+ * Any other Schedulable type is ticked every tick, as it may have its own timing logic.
+ * Off-thread submissions go into a lock-free inbox that the main thread drains at the start of each tick.
+ */
+public class TaskScheduler {
+
+    /**
+     * Submissions from other threads, pending transfer to the main thread.
+     */
+    public final ConcurrentLinkedQueue<Schedulable> inbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Deadline-ordered schedulables. Ties are ordered by submission order.
+     */
+    public final PriorityQueue<Schedulable> timed = new PriorityQueue<>(Comparator.<Schedulable>comparingLong(s -> s.deadline).thenComparingLong(s -> s.scheduleOrder));
+
+    /**
+     * Schedulables that need a tick call every tick.
+     */
+    public final ArrayList<Schedulable> ticked;
+
+    public long nextScheduleOrder = 0;
+
+    public static class MainThreadTask {
+
+        public final Runnable run;
+
+        public final long queuedAt;
+
+        public MainThreadTask(Runnable run, long queuedAt) {
+            this.run = run;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    /**
+     * Callbacks sent to the main thread via DenizenCore.runOnMainThread, drained each tick within 'mainThreadTaskBudgetMillis'.
+     */
+    public final ConcurrentLinkedQueue<MainThreadTask> mainThreadTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Current size of 'mainThreadTasks' (tracked separately as ConcurrentLinkedQueue.size is not constant-time).
+     */
+    public final AtomicInteger mainThreadTasksQueued = new AtomicInteger();
+
+    /**
+     * Main thread callback metrics. Wait times are in nanoseconds, from submission to start of execution.
+     */
+    public long mainThreadTasksRan, mainThreadTasksRanLastTick, mainThreadTaskTotalWait, mainThreadTaskMaxWaitLastTick, mainThreadTaskTicksOverBudget;
+
+    public TaskScheduler(ArrayList<Schedulable> ticked) {
+        this.ticked = ticked;
+    }
+
+    /**
+     * Returns the schedulable that should go in the deadline heap for the input, or null if it needs to be ticked every tick.
+     */
+    public static Schedulable getTimedForm(Schedulable sched) {
+        if (sched.getClass() == OneTimeSchedulable.class || sched.getClass() == RepeatingSchedulable.class) {
+            return sched;
+        }
+        // AsyncSchedulable replaces its inner schedulable's runnable with an async dispatch, so the inner schedulable can be timed directly.
+        if (sched.getClass() == AsyncSchedulable.class) {
+            return getTimedForm(((AsyncSchedulable) sched).schedulable);
+        }
+        return null;
+    }
+
+    /**
+     * Adds a schedulable. Safe to call from any thread.
+     */
+    public void schedule(Schedulable sched) {
+        if (Thread.currentThread() == DenizenCore.MAIN_THREAD) {
+            add(sched);
+        }
+        else {
+            inbox.add(sched);
+        }
+    }
+
+    /**
+     * Adds a schedulable. Must be called from the main thread.
+     */
+    public void add(Schedulable sched) {
+        Schedulable timedForm = getTimedForm(sched);
+        if (timedForm == null) {
+            synchronized (ticked) {
+                ticked.add(sched);
+            }
+            return;
+        }
+        timedForm.deadline = DenizenCore.serverTimeMillis + Math.round(timedForm.secondsLeft * 1000);
+        timedForm.scheduleOrder = nextScheduleOrder++;
+        timed.add(timedForm);
+    }
+
+    /**
+     * Queues a callback to be ran on the main thread. Safe to call from any thread.
+     */
+    public void runOnMainThread(Runnable run) {
+        mainThreadTasks.add(new MainThreadTask(run, System.nanoTime()));
+        mainThreadTasksQueued.incrementAndGet();
+    }
+
+    /**
+     * Runs queued main thread callbacks in order, until the queue is empty or 'mainThreadTaskBudgetMillis' runs out (at least one always runs).
+     * Anything left over carries to the next tick.
+     */
+    public void drainMainThreadTasks() {
+        mainThreadTasksRanLastTick = 0;
+        mainThreadTaskMaxWaitLastTick = 0;
+        long startTime = System.nanoTime();
+        long endTime = CoreConfiguration.mainThreadTaskBudgetMillis > 0 ? startTime + CoreConfiguration.mainThreadTaskBudgetMillis * 1_000_000L : 0;
+        MainThreadTask task;
+        while ((task = mainThreadTasks.poll()) != null) {
+            mainThreadTasksQueued.decrementAndGet();
+            long wait = System.nanoTime() - task.queuedAt;
+            mainThreadTaskTotalWait += wait;
+            mainThreadTaskMaxWaitLastTick = Math.max(mainThreadTaskMaxWaitLastTick, wait);
+            mainThreadTasksRan++;
+            mainThreadTasksRanLastTick++;
+            try {
+                task.run.run();
+            }
+            catch (Throwable ex) {
+                Debug.echoError("DenizenCore - Main thread task failed");
+                Debug.echoError(ex);
+            }
+            if (endTime != 0 && System.nanoTime() > endTime) {
+                if (!mainThreadTasks.isEmpty()) {
+                    mainThreadTaskTicksOverBudget++;
+                }
+                break;
+            }
+        }
+    }
+
+    public void drainInbox() {
+        Schedulable sched;
+        while ((sched = inbox.poll()) != null) {
+            add(sched);
+        }
+    }
+
+    /**
+     * Runs all due tasks. If 'schedulerTickBudgetMillis' is set and runs out, remaining due timed tasks are left for the next tick.
+     */
+    public void tick(int ms_elapsed) {
+        drainInbox();
+        drainMainThreadTasks();
+        long endTime = CoreConfiguration.schedulerTickBudgetMillis > 0 ? System.nanoTime() + CoreConfiguration.schedulerTickBudgetMillis * 1_000_000L : 0;
+        long now = DenizenCore.serverTimeMillis;
+        while (!timed.isEmpty() && timed.peek().deadline <= now) {
+            if (endTime != 0 && System.nanoTime() > endTime) {
+                break;
+            }
+            Schedulable current = timed.poll();
+            if (current.cancelled) {
+                continue;
+            }
+            try {
+                current.run.run();
+            }
+            catch (Throwable ex) {
+                Debug.echoError("DenizenCore - Scheduler item failed");
+                Debug.echoError(ex);
+            }
+            if (current instanceof RepeatingSchedulable && !current.cancelled) {
+                long rate = Math.round(((RepeatingSchedulable) current).fireEverySeconds * 1000);
+                current.deadline = Math.max(current.deadline + rate, now + 1);
+                current.scheduleOrder = nextScheduleOrder++;
+                timed.add(current);
+            }
+        }
+        synchronized (ticked) {
+            for (int i = 0; i < ticked.size(); i++) {
+                Schedulable current = ticked.get(i);
+                try {
+                    if (!current.tick((float) ms_elapsed / 1000)) {
+                        ticked.remove(i--);
+                    }
+                }
+                catch (Throwable ex) {
+                    Debug.echoError("DenizenCore - Scheduler item failed");
+                    Debug.echoError(ex);
+                    if (current instanceof OneTimeSchedulable) {
+                        ticked.remove(i--);
+                    }
+                }
+            }
+        }
+    }
+}